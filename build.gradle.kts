@@ -1,5 +1,7 @@
 import org.gradle.api.tasks.testing.logging.TestExceptionFormat
 import org.gradle.api.tasks.testing.logging.TestLogEvent
+import java.util.zip.Deflater
+import java.util.zip.GZIPOutputStream
 
 plugins {
 	base
@@ -12,13 +14,14 @@ plugins {
 	id ("com.github.ben-manes.versions") version "0.49.0"
 	id("io.freefair.lombok") version "8.4"
 	id("io.sentry.jvm.gradle") version "4.4.1"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "hexlet.code"
 version = "0.0.1-SNAPSHOT"
 
 java {
-	sourceCompatibility = JavaVersion.VERSION_20
+	sourceCompatibility = JavaVersion.VERSION_21
 }
 
 application {
@@ -35,6 +38,9 @@ repositories {
 	mavenCentral()
 }
 
+// 5.1 replaces the synchronized blocks of the pool, which pin virtual threads
+extra["hikaricp.version"] = "5.1.0"
+
 sentry {
 	includeSourceContext = true
 
@@ -48,7 +54,11 @@ tasks.sentryBundleSourcesJava {
 }
 
 dependencies {
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	implementation("org.springframework.boot:spring-boot-starter-aop")
+	implementation("org.springframework.boot:spring-boot-starter-cache")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+	implementation("org.flywaydb:flyway-core")
 	implementation("org.springframework.boot:spring-boot-starter-oauth2-resource-server")
 	implementation("org.springframework.boot:spring-boot-starter-security")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
@@ -59,6 +69,10 @@ dependencies {
 	implementation("org.openapitools:jackson-databind-nullable:0.2.6")
 	implementation("org.mapstruct:mapstruct:1.5.5.Final")
 	implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.6.0")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	implementation("org.hibernate.orm:hibernate-micrometer")
+	// AdaptiveTracesSampler compiles against the SDK, the Sentry plugin skips auto-installing it when declared
+	implementation("io.sentry:sentry-spring-boot-starter-jakarta:7.8.0")
 
 	compileOnly("org.projectlombok:lombok")
 
@@ -66,6 +80,7 @@ dependencies {
 
 	runtimeOnly("com.h2database:h2")
 	runtimeOnly("org.postgresql:postgresql")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
 	annotationProcessor("org.projectlombok:lombok")
 	annotationProcessor("org.mapstruct:mapstruct-processor:1.5.5.Final")
@@ -79,6 +94,40 @@ dependencies {
 	testImplementation("io.rest-assured:spring-mock-mvc:5.5.0")
 }
 
+// precompressed copies of the SPA, picked by the resource chain instead of compressing on every request;
+// brotli copies are only made where the brotli tool is installed
+tasks.processResources {
+	doLast {
+		val brotli = System.getenv("PATH").orEmpty()
+			.split(File.pathSeparator)
+			.map { File(it, "brotli") }
+			.firstOrNull { it.canExecute() }
+		fileTree(destinationDir.resolve("static")) {
+			include("**/*.js", "**/*.css", "**/*.html", "**/*.svg")
+		}.forEach { file ->
+			object : GZIPOutputStream(File("${file.path}.gz").outputStream()) {
+				init {
+					def.setLevel(Deflater.BEST_COMPRESSION)
+				}
+			}.use { out -> file.inputStream().use { it.copyTo(out) } }
+			if (brotli != null) {
+				exec {
+					commandLine(brotli.path, "--best", "--force", "--output=${file.path}.br", file.path)
+				}
+			}
+		}
+	}
+}
+
+// ./gradlew jmh, results in build/results/jmh
+jmh {
+	jmhVersion = "1.37"
+	warmupIterations = 3
+	iterations = 5
+	fork = 1
+	resultFormat = "JSON"
+}
+
 tasks.jacocoTestReport {
 	dependsOn(tasks.test)
 	reports {
@@ -0,0 +1,88 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.dto.label.LabelDTO;
+import hexlet.code.dto.taskStatus.TaskStatusDTO;
+import hexlet.code.model.Label;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import jakarta.persistence.EntityManager;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Fixtures shared by the benchmarks. The measured beans are created without a Spring context,
+ * their collaborators are set through reflection, as the container would do.
+ */
+final class BenchmarkUtils {
+
+    static final String STATUS_SLUG = "to_review";
+
+    static final long LABEL_ID = 1L;
+
+    private BenchmarkUtils() {
+    }
+
+    static void inject(Object target, String fieldName, Object value) {
+        var field = Objects.requireNonNull(ReflectionUtils.findField(target.getClass(), fieldName),
+                "No field " + fieldName + " in " + target.getClass());
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /**
+     * An EntityManager that only answers {@code getReference}, with a new entity carrying just the id,
+     * as an uninitialized Hibernate proxy would. Any other call fails.
+     */
+    static EntityManager referenceEntityManager() {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[] {EntityManager.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("getReference") || !(args[0] instanceof Class<?> entityClass)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    var entity = entityClass.getDeclaredConstructor().newInstance();
+                    inject(entity, "id", args[1]);
+                    return entity;
+                });
+    }
+
+    static TaskStatusDTO taskStatusDTO() {
+        var taskStatus = new TaskStatusDTO();
+        taskStatus.setId(1L);
+        taskStatus.setName("To review");
+        taskStatus.setSlug(STATUS_SLUG);
+        return taskStatus;
+    }
+
+    static LabelDTO labelDTO() {
+        var label = new LabelDTO();
+        label.setId(LABEL_ID);
+        label.setName("feature");
+        return label;
+    }
+
+    static Task task() {
+        var task = new Task();
+        task.setId(42L);
+        task.setName("Prepare the release notes");
+        task.setIndex(3);
+        task.setDescription("Collect the merged changes and describe them for the users");
+        task.setCreatedAt(LocalDate.of(2024, 1, 1));
+        task.setTaskStatus(new TaskStatus()
+                .setId(1L)
+                .setName("To review")
+                .setSlug(STATUS_SLUG));
+        task.setAssignee(new User()
+                .setId(7L)
+                .setEmail("hexlet@example.com"));
+        task.setLabels(Set.of(
+                new Label().setId(LABEL_ID).setName("feature"),
+                new Label().setId(2L).setName("bug")));
+        return task;
+    }
+
+}
@@ -0,0 +1,52 @@
+package hexlet.code.benchmark;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import hexlet.code.util.JWTUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing on login: claims building and RS256 signing with a 2048-bit key, as in EncodersConfig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JWTUtilsBenchmark {
+
+    private static final int KEY_SIZE = 2048;
+
+    private JWTUtils jwtUtils;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        var generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(KEY_SIZE);
+        var keyPair = generator.generateKeyPair();
+        var jwk = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .build();
+
+        jwtUtils = new JWTUtils();
+        BenchmarkUtils.inject(jwtUtils, "jwtEncoder", new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk))));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken("hexlet@example.com");
+    }
+
+}
@@ -0,0 +1,87 @@
+package hexlet.code.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.config.JacksonConfig;
+import hexlet.code.dto.task.TaskDTO;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire for a listing of 5000 tasks, as plain JSON and gzipped as with {@code server.compression}.
+ * The sizes of one response are reported in the {@code wireBytes} counter next to the time it takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskListCompressionBenchmark {
+
+    private static final int TASKS = 5000;
+
+    private static final List<String> STATUSES =
+            List.of("draft", "to_review", "to_be_fixed", "to_publish", "published");
+
+    private ObjectMapper objectMapper;
+
+    private List<TaskDTO> tasks;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Response {
+
+        public long wireBytes;
+
+    }
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapperBuilder().build();
+
+        tasks = new ArrayList<>(TASKS);
+        for (var i = 0; i < TASKS; i++) {
+            var task = new TaskDTO();
+            task.setId((long) i);
+            task.setTitle("Prepare the release notes #" + i);
+            task.setIndex(i);
+            task.setContent("Collect the changes merged since release " + i / 100
+                    + " and describe them for the users");
+            task.setStatus(STATUSES.get(i % STATUSES.size()));
+            task.setAssigneeId((long) i % 20);
+            task.setTaskLabelIds(Set.of(BenchmarkUtils.LABEL_ID, (long) i % 10));
+            task.setCreatedAt(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            tasks.add(task);
+        }
+    }
+
+    @Benchmark
+    public byte[] plainJson(Response response) throws IOException {
+        var body = objectMapper.writeValueAsBytes(tasks);
+        response.wireBytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public byte[] gzipJson(Response response) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, tasks);
+        }
+        response.wireBytes = bytes.size();
+        return bytes.toByteArray();
+    }
+
+}
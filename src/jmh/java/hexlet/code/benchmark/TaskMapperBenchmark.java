@@ -0,0 +1,87 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.component.ReferenceDataCache;
+import hexlet.code.dto.label.LabelDTO;
+import hexlet.code.dto.task.TaskCreateDTO;
+import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.dto.taskStatus.TaskStatusDTO;
+import hexlet.code.mapper.JsonNullableMapperImpl;
+import hexlet.code.mapper.ReferenceMapperImpl;
+import hexlet.code.mapper.TaskMapper;
+import hexlet.code.mapper.TaskMapperImpl;
+import hexlet.code.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the MapStruct mappings on the task read and write paths.
+ * Status and label lookups are served by a warm {@link ReferenceDataCache}, as they are in production,
+ * and resolve to references from a stub EntityManager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskMapperBenchmark {
+
+    private TaskMapper taskMapper;
+
+    private Task task;
+
+    private TaskCreateDTO taskCreateDTO;
+
+    @Setup
+    public void setUp() {
+        taskMapper = new TaskMapperImpl();
+        BenchmarkUtils.inject(taskMapper, "jsonNullableMapper", new JsonNullableMapperImpl());
+        BenchmarkUtils.inject(taskMapper, "referenceMapper", new ReferenceMapperImpl());
+        BenchmarkUtils.inject(taskMapper, "referenceDataCache", new WarmReferenceDataCache());
+        BenchmarkUtils.inject(taskMapper, "entityManager", BenchmarkUtils.referenceEntityManager());
+
+        task = BenchmarkUtils.task();
+
+        taskCreateDTO = new TaskCreateDTO();
+        taskCreateDTO.setTitle(task.getName());
+        taskCreateDTO.setIndex(task.getIndex());
+        taskCreateDTO.setContent(task.getDescription());
+        taskCreateDTO.setStatus(BenchmarkUtils.STATUS_SLUG);
+        taskCreateDTO.setTaskLabelIds(Set.of(BenchmarkUtils.LABEL_ID));
+    }
+
+    @Benchmark
+    public TaskDTO mapTaskToDTO() {
+        return taskMapper.map(task);
+    }
+
+    @Benchmark
+    public Task mapCreateDTOToTask() {
+        return taskMapper.map(taskCreateDTO);
+    }
+
+    private static final class WarmReferenceDataCache extends ReferenceDataCache {
+
+        private final TaskStatusDTO taskStatus = BenchmarkUtils.taskStatusDTO();
+
+        private final List<LabelDTO> labels = List.of(BenchmarkUtils.labelDTO());
+
+        @Override
+        public TaskStatusDTO findTaskStatusBySlug(String slug) {
+            return taskStatus;
+        }
+
+        @Override
+        public List<LabelDTO> findLabelsByIds(Set<Long> ids) {
+            return labels;
+        }
+
+    }
+
+}
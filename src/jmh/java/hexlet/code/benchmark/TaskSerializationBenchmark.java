@@ -0,0 +1,51 @@
+package hexlet.code.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.config.JacksonConfig;
+import hexlet.code.dto.task.TaskDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a task with the ObjectMapper the application builds from {@link JacksonConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private TaskDTO taskDTO;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapperBuilder().build();
+
+        taskDTO = new TaskDTO();
+        taskDTO.setId(42L);
+        taskDTO.setTitle("Prepare the release notes");
+        taskDTO.setIndex(3);
+        taskDTO.setContent("Collect the merged changes and describe them for the users");
+        taskDTO.setStatus(BenchmarkUtils.STATUS_SLUG);
+        taskDTO.setAssigneeId(7L);
+        taskDTO.setTaskLabelIds(Set.of(1L, 2L));
+        taskDTO.setCreatedAt(LocalDate.of(2024, 1, 1));
+    }
+
+    @Benchmark
+    public byte[] serializeTaskDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taskDTO);
+    }
+
+}
@@ -0,0 +1,50 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.dto.task.TaskFilterDTO;
+import hexlet.code.model.Task;
+import hexlet.code.specification.TaskSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskSpecificationBenchmark {
+
+    private TaskSpecification taskSpecification;
+
+    private TaskFilterDTO emptyFilter;
+
+    private TaskFilterDTO fullFilter;
+
+    @Setup
+    public void setUp() {
+        taskSpecification = new TaskSpecification();
+        emptyFilter = new TaskFilterDTO();
+
+        fullFilter = new TaskFilterDTO();
+        fullFilter.setTitleCont("release");
+        fullFilter.setAssigneeId(7L);
+        fullFilter.setStatus(BenchmarkUtils.STATUS_SLUG);
+        fullFilter.setLabelId(BenchmarkUtils.LABEL_ID);
+    }
+
+    @Benchmark
+    public Specification<Task> buildEmptyFilter() {
+        return taskSpecification.build(emptyFilter);
+    }
+
+    @Benchmark
+    public Specification<Task> buildFullFilter() {
+        return taskSpecification.build(fullFilter);
+    }
+
+}
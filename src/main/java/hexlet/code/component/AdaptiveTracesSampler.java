@@ -0,0 +1,58 @@
+package hexlet.code.component;
+
+import io.sentry.SamplingContext;
+import io.sentry.SentryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples at most {@code sentry.traces-sample-rate} of the transactions and lowers the rate under load,
+ * so that roughly {@code sentry-sampling.max-traces-per-second} traces are sent however busy the service is.
+ */
+@Component
+public class AdaptiveTracesSampler implements SentryOptions.TracesSamplerCallback {
+
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    @Value("${sentry.traces-sample-rate:0.1}")
+    private double baseRate;
+
+    @Value("${sentry-sampling.max-traces-per-second:5}")
+    private double maxTracesPerSecond;
+
+    private final AtomicLong currentSecond = new AtomicLong();
+
+    private final AtomicLong currentCount = new AtomicLong();
+
+    private volatile long previousCount;
+
+    @Override
+    public Double sample(SamplingContext samplingContext) {
+        var transaction = samplingContext.getTransactionContext();
+        // keep distributed traces consistent with the upstream decision
+        if (transaction.getParentSampled() != null) {
+            return transaction.getParentSampled() ? 1.0 : 0.0;
+        }
+        if (transaction.getName().contains(ACTUATOR_PATH)) {
+            return 0.0;
+        }
+
+        var requestsPerSecond = countRequest();
+        return Math.min(baseRate, maxTracesPerSecond / requestsPerSecond);
+    }
+
+    // the rate is estimated from the previous full second, or the current one once it has seen more requests
+    private long countRequest() {
+        var now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        var second = currentSecond.get();
+        if (now != second && currentSecond.compareAndSet(second, now)) {
+            var count = currentCount.getAndSet(0);
+            previousCount = now - second == 1 ? count : 0;
+        }
+        return Math.max(previousCount, currentCount.incrementAndGet());
+    }
+
+}
@@ -0,0 +1,25 @@
+package hexlet.code.component;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Moves the {@link ChangeStamps} of the entity class on every write made through the entity manager.
+ * Bulk JPQL statements bypass it and have to call {@link ChangeStamps#touch} themselves.
+ */
+public class ChangeStampListener {
+
+    @Autowired
+    private ObjectProvider<ChangeStamps> changeStamps;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        changeStamps.ifAvailable(stamps -> stamps.touch(entity.getClass()));
+    }
+
+}
@@ -0,0 +1,127 @@
+package hexlet.code.component;
+
+import hexlet.code.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Change stamps of the entity classes, used for the ETag and Last-Modified headers of the read endpoints.
+ * A stamp moves only after the transaction that changed the entities commits, and the endpoints read it
+ * before the data, so a response is never tagged with a stamp newer than its content.
+ * The stamps live in memory: writes made through another instance of the application are not seen.
+ */
+@Component
+public class ChangeStamps {
+
+    // "<version>" or W/"<version>-<epoch>-<stamps>"
+    private static final Pattern ENTITY_TAG = Pattern.compile("(?:W/)?\"(\\d{1,18})(?:-[\\d-]*)?\"");
+
+    private static final long NO_VERSION = -1;
+
+    // tags handed out before a restart never match
+    private final long epoch = System.currentTimeMillis();
+
+    private final Map<Class<?>, Stamp> stamps = new ConcurrentHashMap<>();
+
+    public void touch(Class<?> type) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(type);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        var pending = (Set<Class<?>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            var types = new HashSet<Class<?>>();
+            TransactionSynchronizationManager.bindResource(this, types);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(ChangeStamps.this);
+                    if (status == STATUS_COMMITTED) {
+                        types.forEach(ChangeStamps.this::increment);
+                    }
+                }
+            });
+            pending = types;
+        }
+        pending.add(type);
+    }
+
+    /**
+     * Answers a conditional GET of a collection that depends on the given entity classes.
+     * Returns {@code true} if the response is 304 and the handler has nothing to render.
+     */
+    public boolean checkNotModified(WebRequest request, Class<?>... types) {
+        var tag = Arrays.stream(types)
+                .map(type -> String.valueOf(getStamp(type).value()))
+                .collect(Collectors.joining("-", "W/\"" + epoch + "-", "\""));
+        var lastModified = Arrays.stream(types)
+                .mapToLong(type -> getStamp(type).modifiedAt())
+                .max()
+                .orElse(epoch);
+
+        return request.checkNotModified(tag, lastModified);
+    }
+
+    /**
+     * Answers a conditional GET of a single entity by its {@code @Version}. Classes the representation
+     * of the entity also depends on are added to the tag, which makes it weak.
+     */
+    public boolean checkNotModified(WebRequest request, long version, Class<?>... dependencies) {
+        return request.checkNotModified(entityTag(version, dependencies));
+    }
+
+    /**
+     * The ETag of a single entity, as {@link #checkNotModified(WebRequest, long, Class[])} compares it.
+     */
+    public String entityTag(long version, Class<?>... dependencies) {
+        if (dependencies.length == 0) {
+            return "\"" + version + "\"";
+        }
+
+        return Arrays.stream(dependencies)
+                .map(type -> String.valueOf(getStamp(type).value()))
+                .collect(Collectors.joining("-", "W/\"" + version + "-" + epoch + "-", "\""));
+    }
+
+    /**
+     * The entity version an {@code If-Match} header asks for, null if there is no header or it is {@code *}.
+     * Only the version part of the tag is compared, so the weak tags of entities with dependencies match
+     * as long as the entity itself is unchanged. A tag this server did not issue matches no version.
+     */
+    public Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        if (ifMatch.contains(",")) {
+            throw new BadRequestException("If-Match with several entity tags is not supported");
+        }
+
+        var matcher = ENTITY_TAG.matcher(ifMatch.trim());
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : NO_VERSION;
+    }
+
+    private Stamp getStamp(Class<?> type) {
+        return stamps.getOrDefault(type, new Stamp(0, epoch));
+    }
+
+    private void increment(Class<?> type) {
+        stamps.compute(type, (key, stamp) ->
+                new Stamp(stamp == null ? 1 : stamp.value() + 1, System.currentTimeMillis()));
+    }
+
+    private record Stamp(long value, long modifiedAt) {
+    }
+
+}
@@ -0,0 +1,211 @@
+package hexlet.code.component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.ConflictException;
+import hexlet.code.model.IdempotentRequest;
+import hexlet.code.repository.IdempotentRequestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs create requests at most once per Idempotency-Key and replays the stored response for retries.
+ * Responses are kept in a bounded in-memory cache in front of the idempotency_keys table,
+ * which other instances and restarts see as well.
+ * A retry is matched to its request by a SHA-256 of the request JSON, which leaves out write-only properties,
+ * so no password is stored.
+ */
+@Component
+public class IdempotencyKeys {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final Duration TIME_TO_LIVE = Duration.ofHours(24);
+
+    // a request still in progress after this long is taken to have died, and its key can be reused
+    public static final Duration PENDING_TIMEOUT = Duration.ofMinutes(1);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final long CACHE_SIZE = 10_000;
+
+    private static final long PURGE_INTERVAL = Duration.ofHours(1).toMillis();
+
+    @Autowired
+    private IdempotentRequestRepository idempotentRequestRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Cache<ScopedKey, StoredResponse> responses = Caffeine.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .expireAfterWrite(TIME_TO_LIVE)
+            .build();
+
+    private final ScheduledExecutorService purges = Executors.newSingleThreadScheduledExecutor();
+
+    @PostConstruct
+    public void start() {
+        purges.scheduleAtFixedRate(this::purge, PURGE_INTERVAL, PURGE_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        purges.shutdownNow();
+    }
+
+    /**
+     * Returns the result of {@code action}, or the response stored for an earlier request with the same key.
+     * The action and the stored response are committed together, so a retry never creates a second entity.
+     * Without a key the action simply runs.
+     */
+    public <T> T execute(final String scope, final String key, final Object request,
+                         final Class<T> responseType, final Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(
+                    String.format("%s must have from 1 to %s characters", HEADER, MAX_KEY_LENGTH));
+        }
+
+        var scopedKey = new ScopedKey(scope, key);
+        var requestHash = hash(request);
+        var cached = responses.getIfPresent(scopedKey);
+        if (cached != null) {
+            checkSameRequest(key, cached.requestHash(), requestHash);
+            return read(cached.response(), responseType);
+        }
+
+        var started = start(scope, key, requestHash);
+        if (started.getResponse() != null) {
+            responses.put(scopedKey, new StoredResponse(started.getRequestHash(), started.getResponse()));
+            return read(started.getResponse(), responseType);
+        }
+
+        T result;
+        try {
+            result = transactionTemplate.execute(status -> {
+                var response = action.get();
+                started.setResponse(write(response));
+                idempotentRequestRepository.save(started);
+                return response;
+            });
+        } catch (RuntimeException e) {
+            // nothing was created, so the client may retry with the same key
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotentRequestRepository.deleteById(started.getId()));
+            throw e;
+        }
+
+        responses.put(scopedKey, new StoredResponse(requestHash, started.getResponse()));
+        return result;
+    }
+
+    public void purge() {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotentRequestRepository.deleteCreatedBefore(Instant.now().minus(TIME_TO_LIVE)));
+        } catch (RuntimeException e) {
+            // expired keys are ignored on lookup anyway, the next run deletes them
+        }
+    }
+
+    private IdempotentRequest start(final String scope, final String key, final String requestHash) {
+        try {
+            return transactionTemplate.execute(status -> findOrInsert(scope, key, requestHash));
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent request with the same key inserted it first
+            return transactionTemplate.execute(status -> findOrInsert(scope, key, requestHash));
+        }
+    }
+
+    private IdempotentRequest findOrInsert(final String scope, final String key, final String requestHash) {
+        var existing = idempotentRequestRepository.findByScopeAndKey(scope, key);
+        if (existing.isPresent()) {
+            var request = existing.get();
+            var now = Instant.now();
+            var expired = request.getCreatedAt().isBefore(now.minus(TIME_TO_LIVE));
+            var abandoned = request.getResponse() == null
+                    && request.getCreatedAt().isBefore(now.minus(PENDING_TIMEOUT));
+            if (!expired && !abandoned) {
+                checkSameRequest(key, request.getRequestHash(), requestHash);
+                if (request.getResponse() == null) {
+                    throw new ConflictException(
+                            String.format("A request with %s %s is still in progress", HEADER, key));
+                }
+
+                return request;
+            }
+
+            idempotentRequestRepository.delete(request);
+            idempotentRequestRepository.flush();
+        }
+
+        return idempotentRequestRepository.saveAndFlush(new IdempotentRequest()
+                .setScope(scope)
+                .setKey(key)
+                .setRequestHash(requestHash)
+                .setCreatedAt(Instant.now()));
+    }
+
+    private static void checkSameRequest(final String key, final String storedHash, final String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new BadRequestException(
+                    String.format("%s %s was already used with a different request", HEADER, key));
+        }
+    }
+
+    private String hash(final Object request) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(final Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T read(final String response, final Class<T> responseType) {
+        try {
+            return objectMapper.readValue(response, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record ScopedKey(String scope, String key) {
+    }
+
+    private record StoredResponse(String requestHash, String response) {
+    }
+
+}
@@ -0,0 +1,111 @@
+package hexlet.code.component;
+
+import hexlet.code.config.CacheConfig;
+import hexlet.code.dto.label.LabelDTO;
+import hexlet.code.dto.taskStatus.TaskStatusDTO;
+import hexlet.code.mapper.LabelMapper;
+import hexlet.code.mapper.TaskStatusMapper;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Cached lookups of task statuses and labels used when tasks are written.
+ * Values are DTO snapshots, not entities, so they never hold a persistence context or a task graph.
+ * Misses are not cached; TaskStatusService and LabelService evict the caches on every change.
+ */
+@Component
+public class ReferenceDataCache {
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private TaskStatusMapper taskStatusMapper;
+
+    @Autowired
+    private LabelMapper labelMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Cacheable(cacheNames = CacheConfig.TASK_STATUSES_BY_SLUG, unless = "#result == null")
+    public TaskStatusDTO findTaskStatusBySlug(final String slug) {
+        return taskStatusRepository.findBySlug(slug)
+                .map(taskStatusMapper::map)
+                .orElse(null);
+    }
+
+    /**
+     * Resolves task statuses by slug: cached ones are taken from the cache, the rest with one IN query.
+     * Unknown slugs are skipped.
+     */
+    public List<TaskStatusDTO> findTaskStatusesBySlugs(final Set<String> slugs) {
+        var cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.TASK_STATUSES_BY_SLUG));
+        var taskStatuses = new ArrayList<TaskStatusDTO>();
+        var missing = new HashSet<String>();
+
+        for (var slug : slugs) {
+            var taskStatus = cache.get(slug, TaskStatusDTO.class);
+            if (taskStatus == null) {
+                missing.add(slug);
+            } else {
+                taskStatuses.add(taskStatus);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            taskStatusRepository.findBySlugIn(missing).stream()
+                    .map(taskStatusMapper::map)
+                    .forEach(taskStatus -> {
+                        cache.put(taskStatus.getSlug(), taskStatus);
+                        taskStatuses.add(taskStatus);
+                    });
+        }
+
+        return taskStatuses;
+    }
+
+    /**
+     * Resolves labels by id: cached ones are taken from the cache, the rest with one IN query.
+     * Unknown ids are skipped, as {@link LabelRepository#findByIdIn} does.
+     */
+    public List<LabelDTO> findLabelsByIds(final Set<Long> ids) {
+        var cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.LABELS_BY_ID));
+        var labels = new ArrayList<LabelDTO>();
+        var missing = new HashSet<Long>();
+
+        for (var id : ids) {
+            var label = cache.get(id, LabelDTO.class);
+            if (label == null) {
+                missing.add(id);
+            } else {
+                labels.add(label);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            labelRepository.findByIdIn(missing).stream()
+                    .map(labelMapper::map)
+                    .forEach(label -> {
+                        cache.put(label.getId(), label);
+                        labels.add(label);
+                    });
+        }
+
+        return labels;
+    }
+
+}
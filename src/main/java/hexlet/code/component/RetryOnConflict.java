@@ -0,0 +1,18 @@
+package hexlet.code.component;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the method again when it fails on an optimistic locking conflict, see {@link RetryOnConflictAspect}.
+ * Only for methods that reload what they change, so that another attempt works on the current state.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    int attempts() default 3;
+
+}
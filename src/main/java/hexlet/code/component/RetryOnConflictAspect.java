@@ -0,0 +1,42 @@
+package hexlet.code.component;
+
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods after a short random backoff.
+ * Ordered before the transaction interceptor, so that every attempt runs in a new transaction;
+ * inside a transaction started by the caller the conflict is passed on, as that transaction is already lost.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RetryOnConflictAspect {
+
+    private static final long BACKOFF_MILLIS = 20;
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(final ProceedingJoinPoint joinPoint, final RetryOnConflict retryOnConflict) throws Throwable {
+        for (var attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= retryOnConflict.attempts()
+                        || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw e;
+                }
+                Thread.sleep(ThreadLocalRandom.current().nextLong(BACKOFF_MILLIS * attempt) + 1);
+            }
+        }
+    }
+
+}
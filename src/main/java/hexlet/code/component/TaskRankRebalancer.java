@@ -0,0 +1,125 @@
+package hexlet.code.component;
+
+import hexlet.code.model.Task;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Spreads the ranks ({@link Task#getIndex()}) of a status column evenly again, {@link #RANK_GAP} apart,
+ * in the order of the column; tasks without a rank get one after the others.
+ * Moves take the middle of the gap between two neighbours, so a gap shrinks with every move into it:
+ * once it gets narrow the column is rebalanced in the background, and only a move into a gap that is
+ * already used up has to rebalance synchronously.
+ * The rebalanced tasks get a new version and index, no change events are published for them.
+ * Moves into a column and its rebalances lock the row of its status, so a move never ranks a task
+ * against neighbours that a concurrent rebalance is renumbering.
+ */
+@Component
+public class TaskRankRebalancer {
+
+    public static final int RANK_GAP = 1024;
+
+    // a gap narrower than this on either side of a moved task schedules a rebalance
+    public static final int MIN_GAP = 8;
+
+    // no task has this id, for rebalances that leave no task out
+    private static final long NO_TASK = -1;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChangeStamps changeStamps;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Rebalances the column in the background once the current transaction commits.
+     * A column already waiting for a rebalance is not scheduled twice.
+     */
+    public void schedule(long statusId) {
+        if (!scheduled.add(statusId)) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(statusId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    submit(statusId);
+                } else {
+                    scheduled.remove(statusId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Rebalances the column in the current transaction, leaving out the task with {@code excludedId},
+     * which the caller is about to rank itself.
+     */
+    public void rebalance(long statusId, long excludedId) {
+        lockColumn(statusId);
+        var ranks = taskRepository.findColumnRanks(statusId, excludedId);
+        // narrower gaps for columns too long for RANK_GAP, so that the last rank still fits into an int
+        var gap = Math.min(RANK_GAP, Integer.MAX_VALUE / (ranks.size() + 1L));
+        var updated = 0;
+        for (var i = 0; i < ranks.size(); i++) {
+            var index = (int) ((i + 1) * gap);
+            if (!Objects.equals(ranks.get(i).getIndex(), index)) {
+                taskRepository.updateIndex(ranks.get(i).getId(), index);
+                updated++;
+            }
+        }
+
+        if (updated > 0) {
+            changeStamps.touch(Task.class);
+        }
+    }
+
+    /**
+     * Locks the column until the current transaction ends. Waits for a move or rebalance of the column
+     * running in another transaction.
+     */
+    public void lockColumn(long statusId) {
+        taskStatusRepository.findForUpdateById(statusId);
+    }
+
+    private void submit(long statusId) {
+        executor.execute(() -> {
+            scheduled.remove(statusId);
+            transactionTemplate.executeWithoutResult(status -> rebalance(statusId, NO_TASK));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
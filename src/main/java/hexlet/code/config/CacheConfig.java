@@ -0,0 +1,16 @@
+package hexlet.code.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TASK_COUNTS = "taskCounts";
+
+    public static final String TASK_STATUSES_BY_SLUG = "taskStatusesBySlug";
+
+    public static final String LABELS_BY_ID = "labelsById";
+
+}
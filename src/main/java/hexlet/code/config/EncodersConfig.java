@@ -6,7 +6,12 @@ import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import hexlet.code.component.PasswordEncoderProperties;
 import hexlet.code.component.RsaKeyProperties;
+import hexlet.code.util.BoundedPasswordEncoder;
+import hexlet.code.util.CachingJwtDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,12 +25,20 @@ import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 @Configuration
 public class EncodersConfig {
 
+    private static final long JWT_CACHE_SIZE = 10_000;
+
     @Autowired
     private RsaKeyProperties rsaKeys;
 
+    @Autowired
+    private PasswordEncoderProperties passwordEncoderProperties;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(passwordEncoderProperties.getStrength()),
+                passwordEncoderProperties.getThreads(),
+                passwordEncoderProperties.getQueueCapacity());
     }
 
     @Bean
@@ -38,8 +51,11 @@ public class EncodersConfig {
     }
 
     @Bean
-    JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(rsaKeys.getPublicKey()).build();
+    JwtDecoder jwtDecoder(MeterRegistry meterRegistry) {
+        var decoder = new CachingJwtDecoder(
+                NimbusJwtDecoder.withPublicKey(rsaKeys.getPublicKey()).build(), JWT_CACHE_SIZE);
+        CaffeineCacheMetrics.monitor(meterRegistry, decoder.getCache(), "verifiedJwts");
+        return decoder;
 
     }
 
@@ -0,0 +1,20 @@
+package hexlet.code.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // timer for @Timed service classes, tagged with class and method
+    public static final String SERVICE_TIMER = "app.service";
+
+    // HTTP endpoints are already timed as http.server.requests, this covers the @Timed service layer
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+}
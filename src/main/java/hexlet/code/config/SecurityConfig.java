@@ -1,7 +1,9 @@
 package hexlet.code.config;
 
 import hexlet.code.service.CustomUserDetailsService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -47,9 +49,18 @@ public class SecurityConfig {
             new AntPathRequestMatcher("/v3/api-docs/**"),
             new AntPathRequestMatcher("/api-docs/**"),
             new AntPathRequestMatcher("/swagger-ui.html"),
-            new AntPathRequestMatcher("/swagger-ui/**")
+            new AntPathRequestMatcher("/swagger-ui/**"),
+            new AntPathRequestMatcher("/actuator/health/**")
     );
 
+    private static final RequestMatcher PROMETHEUS_URL = new AntPathRequestMatcher("/actuator/prometheus");
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
         return httpSecurity
@@ -60,6 +71,7 @@ public class SecurityConfig {
                 .headers(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(WHITE_URLS).permitAll()
+                        .requestMatchers(this::isPrometheusScrape).permitAll()
                         .requestMatchers(welcomeUrl).permitAll()
                         .requestMatchers(baseUrl + loginUrl).permitAll()
                         .requestMatchers(baseUrl + loginUrl + "/**").permitAll()
@@ -71,6 +83,13 @@ public class SecurityConfig {
                 .build();
     }
 
+    // scraped without a token only on the management port, which is not published next to the API
+    private boolean isPrometheusScrape(HttpServletRequest request) {
+        return managementPort != serverPort
+                && request.getLocalPort() == managementPort
+                && PROMETHEUS_URL.matches(request);
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(HttpSecurity httpSecurity) throws Exception {
         return httpSecurity
@@ -83,6 +102,7 @@ public class SecurityConfig {
         var provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
 
     }
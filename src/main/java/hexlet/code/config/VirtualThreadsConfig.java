@@ -0,0 +1,35 @@
+package hexlet.code.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hexlet.code.util.ConcurrencyLimitingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Active with the "virtual" profile (spring.threads.virtual.enabled), where Tomcat serves each request
+ * on its own virtual thread. Database concurrency is then bounded by the size of the connection pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyLimiter() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    return new ConcurrencyLimitingDataSource(dataSource, dataSource.getMaximumPoolSize(),
+                            Duration.ofMillis(dataSource.getConnectionTimeout()));
+                }
+                return bean;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,28 @@
+package hexlet.code.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.time.Duration;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private static final Duration ASSETS_MAX_AGE = Duration.ofDays(365);
+
+    // the SPA bundle names carry a content hash, so a cached copy never has to be revalidated;
+    // index.html, which references them, is served by the default handler with no-cache
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(CacheControl.maxAge(ASSETS_MAX_AGE).cachePublic().immutable())
+                .resourceChain(true)
+                // serves the .br/.gz copies made by the build when the client accepts them
+                .addResolver(new EncodedResourceResolver());
+    }
+
+}
@@ -0,0 +1,53 @@
+package hexlet.code.controller;
+
+import hexlet.code.component.ChangeStamps;
+import hexlet.code.dto.board.BoardColumnDTO;
+import hexlet.code.dto.board.BoardDTO;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.service.BoardService;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/board")
+@AllArgsConstructor
+public class BoardController {
+
+    @Autowired
+    private final BoardService boardService;
+
+    @Autowired
+    private final ChangeStamps changeStamps;
+
+    @GetMapping
+    public BoardDTO get(@RequestParam(defaultValue = "" + BoardService.DEFAULT_COLUMN_SIZE) final int limit,
+                        final WebRequest request) {
+        if (changeStamps.checkNotModified(request, Task.class, TaskStatus.class)) {
+            return null;
+        }
+
+        return boardService.getBoard(limit);
+
+    }
+
+    @GetMapping("/columns/{slug}")
+    public BoardColumnDTO getColumn(@PathVariable final String slug,
+                                    @RequestParam(required = false) final String cursor,
+                                    @RequestParam(defaultValue = "" + BoardService.DEFAULT_COLUMN_SIZE) final int limit,
+                                    final WebRequest request) {
+        if (changeStamps.checkNotModified(request, Task.class, TaskStatus.class)) {
+            return null;
+        }
+
+        return boardService.getColumn(slug, cursor, limit);
+
+    }
+
+}
@@ -1,12 +1,15 @@
 package hexlet.code.controller;
 
+import hexlet.code.component.ChangeStamps;
 import hexlet.code.dto.label.LabelCreateDTO;
 import hexlet.code.dto.label.LabelDTO;
 import hexlet.code.dto.label.LabelUpdateDTO;
+import hexlet.code.model.Label;
 import hexlet.code.service.LabelService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,9 +18,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -29,9 +34,15 @@ public class LabelController {
     @Autowired
     private final LabelService labelService;
 
+    @Autowired
+    private final ChangeStamps changeStamps;
+
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<LabelDTO>> getAll() {
+    public ResponseEntity<List<LabelDTO>> getAll(final WebRequest request) {
+        if (changeStamps.checkNotModified(request, Label.class)) {
+            return null;
+        }
+
         var labels = labelService.getAllLabels();
         return ResponseEntity
                 .ok()
@@ -41,8 +52,12 @@ public class LabelController {
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public LabelDTO get(@PathVariable final long id) {
+    public LabelDTO get(@PathVariable final long id, final WebRequest request) {
+        var version = labelService.findLabelVersion(id);
+        if (version.isPresent() && changeStamps.checkNotModified(request, version.get())) {
+            return null;
+        }
+
         return labelService.getLabel(id);
 
     }
@@ -55,10 +70,14 @@ public class LabelController {
     }
 
     @PutMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public LabelDTO updateLabel(@PathVariable final long id,
-                                @Valid @RequestBody final LabelUpdateDTO labelBody) {
-        return labelService.updateLabel(id, labelBody);
+    public ResponseEntity<LabelDTO> updateLabel(@PathVariable final long id,
+                                                @Valid @RequestBody final LabelUpdateDTO labelBody,
+                                                @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                                final String ifMatch) {
+        var label = labelService.updateLabel(id, labelBody, changeStamps.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(changeStamps.entityTag(label.getVersion()))
+                .body(label);
 
     }
 
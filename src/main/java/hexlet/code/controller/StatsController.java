@@ -0,0 +1,36 @@
+package hexlet.code.controller;
+
+import hexlet.code.component.ChangeStamps;
+import hexlet.code.dto.stats.TaskCountsDTO;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.stats.TaskCounters;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/stats")
+@AllArgsConstructor
+public class StatsController {
+
+    @Autowired
+    private final TaskCounters taskCounters;
+
+    @Autowired
+    private final ChangeStamps changeStamps;
+
+    @GetMapping("/counts")
+    public TaskCountsDTO getCounts(final WebRequest request) {
+        if (changeStamps.checkNotModified(request, Task.class, TaskStatus.class)) {
+            return null;
+        }
+
+        return taskCounters.getCounts();
+
+    }
+
+}
@@ -1,25 +1,50 @@
 package hexlet.code.controller;
 
+import hexlet.code.component.ChangeStamps;
+import hexlet.code.component.IdempotencyKeys;
+import hexlet.code.dto.task.TaskBulkResultDTO;
+import hexlet.code.dto.task.TaskBulkSelectionDTO;
+import hexlet.code.dto.task.TaskBulkUpdateDTO;
 import hexlet.code.dto.task.TaskCreateDTO;
+import hexlet.code.dto.task.TaskCursor;
 import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.dto.task.TaskExportFormat;
 import hexlet.code.dto.task.TaskFilterDTO;
+import hexlet.code.dto.task.TaskImportResultDTO;
+import hexlet.code.dto.task.TaskMoveDTO;
 import hexlet.code.dto.task.TaskUpdateDTO;
+import hexlet.code.event.TaskEventBroadcaster;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.service.TaskBulkService;
+import hexlet.code.service.TaskImportService;
 import hexlet.code.service.TaskService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -30,37 +55,151 @@ public class TaskController {
     @Autowired
     private final TaskService taskService;
 
+    @Autowired
+    private final TaskImportService taskImportService;
+
+    @Autowired
+    private final TaskBulkService taskBulkService;
+
+    @Autowired
+    private final ChangeStamps changeStamps;
+
+    @Autowired
+    private final TaskEventBroadcaster taskEventBroadcaster;
+
+    @Autowired
+    private final IdempotencyKeys idempotencyKeys;
+
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<TaskDTO>> getAll(final TaskFilterDTO filterDTO) {
+    public ResponseEntity<List<TaskDTO>> getAll(final TaskFilterDTO filterDTO,
+                                                @RequestParam(name = "_start", required = false) final Integer start,
+                                                @RequestParam(name = "_end", required = false) final Integer end,
+                                                @RequestParam(name = "_sort", required = false) final String sort,
+                                                @RequestParam(name = "_order", required = false) final String order,
+                                                final WebRequest request) {
+        // the list shows the status slugs, so it changes with the statuses too
+        if (changeStamps.checkNotModified(request, Task.class, TaskStatus.class)) {
+            return null;
+        }
+
+        // parameters prefixed with "_" are treated as field markers by the data binder, so they are bound here
+        filterDTO.setStart(start);
+        filterDTO.setEnd(end);
+        filterDTO.setSort(sort);
+        filterDTO.setOrder(order);
+
         var tasks = taskService.getAllTasks(filterDTO);
+        var response = ResponseEntity
+                .ok()
+                .header("X-Total-Count", String.valueOf(taskService.countTasks(filterDTO)));
+
+        // a cursor is a (createdAt, id) position, it only continues a list in that order
+        var keysetOrder = filterDTO.getCursor() != null || "createdAt".equals(filterDTO.getSort());
+        if (keysetOrder && !tasks.isEmpty()) {
+            var last = tasks.get(tasks.size() - 1);
+            if (last.getCreatedAt() != null) {
+                response.header("X-Next-Cursor", new TaskCursor(last.getCreatedAt(), last.getId()).toString());
+            }
+        }
+
+        return response.body(tasks);
+
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(final TaskFilterDTO filterDTO,
+                                                        @RequestParam(defaultValue = "ndjson") final String format) {
+        var exportFormat = TaskExportFormat.of(format);
+        StreamingResponseBody body = out -> taskService.exportTasks(filterDTO, exportFormat, out);
 
         return ResponseEntity
                 .ok()
-                .header("X-Total-Count", String.valueOf(tasks.size()))
-                .body(tasks);
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + exportFormat.getExtension())
+                .body(body);
+
+    }
+
+    /**
+     * Server-sent events for the tasks matching the filter: created, updated, deleted, and removed
+     * for an update that moved the task out of the filter. Each event carries the task as its data.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(final TaskFilterDTO filterDTO,
+                             @RequestHeader(name = "Last-Event-ID", required = false) final String lastEventId) {
+        return taskEventBroadcaster.subscribe(filterDTO, lastEventId);
 
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public TaskDTO get(@PathVariable final long id) {
+    public TaskDTO get(@PathVariable final long id, final WebRequest request) {
+        var version = taskService.findTaskVersion(id);
+        if (version.isPresent() && changeStamps.checkNotModified(request, version.get(), TaskStatus.class)) {
+            return null;
+        }
+
         return taskService.getTask(id);
 
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public TaskDTO createTask(@Valid @RequestBody final TaskCreateDTO taskBody) {
-        return taskService.createTask(taskBody);
+    public TaskDTO createTask(@Valid @RequestBody final TaskCreateDTO taskBody,
+                              @RequestHeader(name = IdempotencyKeys.HEADER, required = false)
+                              final String idempotencyKey,
+                              final Principal principal) {
+        // keys are per user, so one user cannot replay the tasks of another
+        return idempotencyKeys.execute("tasks:" + principal.getName(), idempotencyKey, taskBody, TaskDTO.class,
+                () -> taskService.createTask(taskBody));
+
+    }
+
+    /**
+     * Accepts a JSON array or NDJSON of tasks and returns one result per row, in the order of the rows.
+     */
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    public List<TaskImportResultDTO> importTasks(final HttpServletRequest request) throws IOException {
+        return taskImportService.importTasks(request.getInputStream());
 
     }
 
+    /**
+     * Applies the same changes to all tasks selected by ids or by a filter, see {@link TaskBulkService}.
+     */
+    @PatchMapping("/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public TaskBulkResultDTO updateTasks(@RequestBody final TaskBulkUpdateDTO dto) {
+        return taskBulkService.updateTasks(dto);
+
+    }
+
+    @DeleteMapping("/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public TaskBulkResultDTO deleteTasks(@RequestBody final TaskBulkSelectionDTO dto) {
+        return taskBulkService.deleteTasks(dto);
+
+    }
+
+    /**
+     * With {@code If-Match} the task is only updated if it still has the version of that tag, otherwise 412.
+     */
     @PutMapping("/{id}")
+    public ResponseEntity<TaskDTO> updateTask(@Valid @RequestBody final TaskUpdateDTO taskBody,
+                                              @PathVariable final long id,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                              final String ifMatch) {
+        var task = taskService.updateTask(taskBody, id, changeStamps.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(changeStamps.entityTag(task.getVersion(), TaskStatus.class))
+                .body(task);
+
+    }
+
+    @PostMapping("/{id}/move")
     @ResponseStatus(HttpStatus.OK)
-    public TaskDTO updateTask(@Valid @RequestBody final TaskUpdateDTO taskBody,
-                                          @PathVariable final long id) {
-        return taskService.updateTask(taskBody, id);
+    public TaskDTO moveTask(@RequestBody final TaskMoveDTO moveBody, @PathVariable final long id) {
+        return taskService.moveTask(id, moveBody);
 
     }
 
@@ -1,12 +1,15 @@
 package hexlet.code.controller;
 
+import hexlet.code.component.ChangeStamps;
 import hexlet.code.dto.taskStatus.TaskStatusCreateDTO;
 import hexlet.code.dto.taskStatus.TaskStatusDTO;
 import hexlet.code.dto.taskStatus.TaskStatusUpdateDTO;
+import hexlet.code.model.TaskStatus;
 import hexlet.code.service.TaskStatusService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,9 +18,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -29,9 +34,15 @@ public class TaskStatusController {
     @Autowired
     private final TaskStatusService taskStatusService;
 
+    @Autowired
+    private final ChangeStamps changeStamps;
+
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<TaskStatusDTO>> getAll() {
+    public ResponseEntity<List<TaskStatusDTO>> getAll(final WebRequest request) {
+        if (changeStamps.checkNotModified(request, TaskStatus.class)) {
+            return null;
+        }
+
         List<TaskStatusDTO> taskStatuses = taskStatusService.getAllTaskStatuses();
 
         return ResponseEntity
@@ -42,8 +53,12 @@ public class TaskStatusController {
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public TaskStatusDTO get(@PathVariable final long id) {
+    public TaskStatusDTO get(@PathVariable final long id, final WebRequest request) {
+        var version = taskStatusService.findTaskStatusVersion(id);
+        if (version.isPresent() && changeStamps.checkNotModified(request, version.get())) {
+            return null;
+        }
+
         return taskStatusService.getTaskStatus(id);
 
     }
@@ -56,10 +71,14 @@ public class TaskStatusController {
     }
 
     @PutMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public TaskStatusDTO updateTaskStatus(@Valid @RequestBody final TaskStatusUpdateDTO taskStatusBody,
-                                          @PathVariable final long id) {
-        return taskStatusService.updateTaskStatus(taskStatusBody, id);
+    public ResponseEntity<TaskStatusDTO> updateTaskStatus(@Valid @RequestBody final TaskStatusUpdateDTO taskStatusBody,
+                                                          @PathVariable final long id,
+                                                          @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                                          final String ifMatch) {
+        var taskStatus = taskStatusService.updateTaskStatus(taskStatusBody, id, changeStamps.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(changeStamps.entityTag(taskStatus.getVersion()))
+                .body(taskStatus);
 
     }
 
@@ -1,13 +1,17 @@
 package hexlet.code.controller;
 
+import hexlet.code.component.ChangeStamps;
+import hexlet.code.component.IdempotencyKeys;
 import hexlet.code.dto.user.UserCreateDTO;
 import hexlet.code.dto.user.UserDTO;
 import hexlet.code.dto.user.UserUpdateDTO;
+import hexlet.code.model.User;
 import hexlet.code.service.UserService;
 import hexlet.code.util.UserUtils;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,9 +21,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -34,9 +40,18 @@ public class UsersController {
     @Autowired
     private final UserUtils userUtils;
 
+    @Autowired
+    private final ChangeStamps changeStamps;
+
+    @Autowired
+    private final IdempotencyKeys idempotencyKeys;
+
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
+    public ResponseEntity<List<UserDTO>> getAllUsers(final WebRequest request) {
+        if (changeStamps.checkNotModified(request, User.class)) {
+            return null;
+        }
+
         List<UserDTO> users = userService.getAllUsers();
 
         return ResponseEntity
@@ -46,23 +61,34 @@ public class UsersController {
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public UserDTO getUser(@PathVariable final long id) {
+    public UserDTO getUser(@PathVariable final long id, final WebRequest request) {
+        var version = userService.findUserVersion(id);
+        if (version.isPresent() && changeStamps.checkNotModified(request, version.get())) {
+            return null;
+        }
+
         return userService.getUserById(id);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public UserDTO createUser(@Valid @RequestBody final UserCreateDTO userBody) {
-        return userService.createUser(userBody);
+    public UserDTO createUser(@Valid @RequestBody final UserCreateDTO userBody,
+                              @RequestHeader(name = IdempotencyKeys.HEADER, required = false)
+                              final String idempotencyKey) {
+        return idempotencyKeys.execute("users", idempotencyKey, userBody, UserDTO.class,
+                () -> userService.createUser(userBody));
     }
 
     @PutMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("@userUtils.isUser(#id")
-    public UserDTO updateUser(@Valid @RequestBody final UserUpdateDTO userBody,
-                              @PathVariable final long id) {
-        return userService.updateUser(userBody, id);
+    public ResponseEntity<UserDTO> updateUser(@Valid @RequestBody final UserUpdateDTO userBody,
+                                              @PathVariable final long id,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                              final String ifMatch) {
+        var user = userService.updateUser(userBody, id, changeStamps.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(changeStamps.entityTag(user.getVersion()))
+                .body(user);
     }
 
     @DeleteMapping("/{id}")
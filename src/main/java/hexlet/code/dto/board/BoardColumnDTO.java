@@ -0,0 +1,26 @@
+package hexlet.code.dto.board;
+
+import hexlet.code.dto.task.TaskDTO;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BoardColumnDTO {
+
+    private Long id;
+    private String name;
+    private String slug;
+
+    // all tasks of the column; not set on the pages loaded after the board
+    private Long count;
+
+    private List<TaskDTO> tasks = new ArrayList<>();
+
+    // position after the last task, null when the column has no more tasks
+    private String nextCursor;
+
+}
@@ -0,0 +1,42 @@
+package hexlet.code.dto.board;
+
+import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Keyset position in a board column: the (index, id) pair of the last task loaded.
+ * Serialized as {@code <index>_<id>}; the index is left empty for tasks without one, e.g. {@code _42}.
+ */
+@Getter
+@AllArgsConstructor
+public class BoardCursor {
+
+    private static final String SEPARATOR = "_";
+
+    private final Integer index;
+    private final long id;
+
+    public static BoardCursor parse(final String value) {
+        var parts = value.split(SEPARATOR, -1);
+        if (parts.length != 2) {
+            throw new BadRequestException("Invalid cursor: " + value);
+        }
+        try {
+            return new BoardCursor(parts[0].isEmpty() ? null : Integer.valueOf(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor: " + value);
+        }
+    }
+
+    public static BoardCursor after(final TaskDTO task) {
+        return new BoardCursor(task.getIndex(), task.getId());
+    }
+
+    @Override
+    public String toString() {
+        return (index == null ? "" : index) + SEPARATOR + id;
+    }
+
+}
@@ -0,0 +1,21 @@
+package hexlet.code.dto.stats;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Numbers of tasks; statuses are keyed by slug, assignees and labels by id. Zero counts are left out.
+ */
+@Getter
+@Setter
+public class TaskCountsDTO {
+
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<Long, Long> byAssignee;
+    private Map<Long, Long> byLabel;
+    private Map<Long, Map<String, Long>> byAssigneeAndStatus;
+
+}
@@ -0,0 +1,13 @@
+package hexlet.code.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TaskBulkResultDTO {
+
+    // tasks that were updated or deleted; ids of tasks that no longer exist are not counted
+    private long affected;
+
+}
@@ -0,0 +1,18 @@
+package hexlet.code.dto.task;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Tasks of a bulk operation: either explicit ids or a filter, whose paging and sorting fields are ignored.
+ */
+@Getter
+@Setter
+public class TaskBulkSelectionDTO {
+
+    private List<Long> ids;
+    private TaskFilterDTO filter;
+
+}
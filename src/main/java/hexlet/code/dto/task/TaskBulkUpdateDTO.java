@@ -0,0 +1,26 @@
+package hexlet.code.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+import org.openapitools.jackson.nullable.JsonNullable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Changes applied to every selected task. Omitted fields stay as they are; {@code "assignee_id": null} unassigns.
+ */
+@Getter
+@Setter
+public class TaskBulkUpdateDTO extends TaskBulkSelectionDTO {
+
+    private String status;
+
+    @JsonProperty("assignee_id")
+    private JsonNullable<Long> assigneeId;
+
+    private Set<Long> addLabelIds = new HashSet<>();
+    private Set<Long> removeLabelIds = new HashSet<>();
+
+}
@@ -0,0 +1,40 @@
+package hexlet.code.dto.task;
+
+import hexlet.code.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset position in the task list: the (createdAt, id) pair of the last task of the previous page.
+ * Serialized as {@code <createdAt>_<id>}, e.g. {@code 2024-05-01_42}.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCursor {
+
+    private static final String SEPARATOR = "_";
+
+    private final LocalDate createdAt;
+    private final long id;
+
+    public static TaskCursor parse(final String value) {
+        var parts = value.split(SEPARATOR);
+        if (parts.length != 2) {
+            throw new BadRequestException("Invalid cursor: " + value);
+        }
+        try {
+            return new TaskCursor(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return createdAt + SEPARATOR + id;
+    }
+
+}
@@ -1,15 +1,29 @@
 package hexlet.code.dto.task;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
+/**
+ * Filter and paging parameters of the task list.
+ * Equality covers only the filter fields, so the instance can be used as a key of the count cache.
+ */
 @Getter
 @Setter
+@EqualsAndHashCode(of = {"q", "titleCont", "assigneeId", "status", "labelId"})
 public class TaskFilterDTO {
 
+    // full-text query over name and description; without _sort the results are ordered by relevance
+    private String q;
     private String titleCont;
     private Long assigneeId;
     private String status;
     private Long labelId;
 
+    private Integer start;
+    private Integer end;
+    private String sort;
+    private String order;
+    private String cursor;
+
 }
@@ -0,0 +1,19 @@
+package hexlet.code.dto.task;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Target of a drag and drop: the status column, current one if omitted, and the neighbour to drop next to.
+ * With {@code afterId} the task goes right below that task, with {@code beforeId} right above it,
+ * with neither to the end of the column. {@code afterId} wins if both are given.
+ */
+@Getter
+@Setter
+public class TaskMoveDTO {
+
+    private String status;
+    private Long afterId;
+    private Long beforeId;
+
+}
@@ -0,0 +1,12 @@
+package hexlet.code.dto.task;
+
+/**
+ * Projection of a task with just its position in the column of its status.
+ */
+public interface TaskRank {
+
+    Long getId();
+
+    Integer getIndex();
+
+}
@@ -1,6 +1,7 @@
 package hexlet.code.dto.taskStatus;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -17,4 +18,8 @@ public class TaskStatusDTO {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate createdAt;
 
+    // version of the entity the DTO was mapped from, for the ETag of the response
+    @JsonIgnore
+    private Long version;
+
 }
@@ -1,5 +1,6 @@
 package hexlet.code.dto.user;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -17,6 +18,8 @@ public class UserCreateDTO {
     @NotBlank
     private String email;
 
+    // read from requests but never written out, e.g. into the fingerprint of IdempotencyKeys
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @NotBlank
     @Size(min = 3)
     private String password;
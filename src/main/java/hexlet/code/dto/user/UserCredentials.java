@@ -0,0 +1,12 @@
+package hexlet.code.dto.user;
+
+/**
+ * Projection of the users table with just the columns needed to authenticate.
+ */
+public interface UserCredentials {
+
+    String getEmail();
+
+    String getPasswordDigest();
+
+}
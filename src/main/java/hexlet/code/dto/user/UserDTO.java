@@ -1,6 +1,7 @@
 package hexlet.code.dto.user;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -18,4 +19,8 @@ public class UserDTO {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate createdAt;
 
+    // version of the entity the DTO was mapped from, for the ETag of the response
+    @JsonIgnore
+    private Long version;
+
 }
@@ -0,0 +1,38 @@
+package hexlet.code.event;
+
+import hexlet.code.dto.task.TaskDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the task services for every written task, delivered to {@link TaskEventBroadcaster} after commit.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskChangeEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+
+    // state after the change; for DELETED the last state of the task
+    private final TaskDTO task;
+
+    // state before an UPDATED, so that subscribers also learn about tasks leaving their filter
+    private final TaskDTO previous;
+
+    public static TaskChangeEvent created(final TaskDTO task) {
+        return new TaskChangeEvent(Type.CREATED, task, null);
+    }
+
+    public static TaskChangeEvent updated(final TaskDTO task, final TaskDTO previous) {
+        return new TaskChangeEvent(Type.UPDATED, task, previous);
+    }
+
+    public static TaskChangeEvent deleted(final TaskDTO task) {
+        return new TaskChangeEvent(Type.DELETED, task, null);
+    }
+
+}
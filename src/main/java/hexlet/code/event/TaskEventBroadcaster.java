@@ -0,0 +1,232 @@
+package hexlet.code.event;
+
+import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.dto.task.TaskFilterDTO;
+import hexlet.code.exception.TooManyRequestsException;
+import hexlet.code.specification.TaskSpecification;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Fans committed task changes out to the subscribers of {@code GET /api/tasks/stream}.
+ * Every subscriber has a bounded buffer drained by a virtual thread of its own; a subscriber that falls
+ * {@link #BUFFER_SIZE} events behind is disconnected and may reconnect with its {@code Last-Event-ID}.
+ * The last {@link #HISTORY_SIZE} events are kept for that, older positions get a {@code reset} event,
+ * after which the client has to reload the list. Event ids are {@code <epoch>-<sequence>}, so that an id
+ * from before a restart gets a {@code reset} as well.
+ */
+@Component
+public class TaskEventBroadcaster {
+
+    private static final int HISTORY_SIZE = 1000;
+
+    private static final int BUFFER_SIZE = 256;
+
+    private static final int MAX_SUBSCRIBERS = 1000;
+
+    private static final long TIMEOUT = Duration.ofMinutes(30).toMillis();
+
+    private static final long HEARTBEAT_INTERVAL = Duration.ofSeconds(15).toMillis();
+
+    private static final String RESET_EVENT = "reset";
+
+    // sent instead of UPDATED when the task no longer matches the filter of the subscriber
+    private static final String REMOVED_EVENT = "removed";
+
+    @Autowired
+    private TaskSpecification taskSpecification;
+
+    // the startup time, the sequence of the events restarts with every instance
+    private final long epoch = System.currentTimeMillis();
+
+    // guarded by this, together with lastId
+    private final Deque<Entry> history = new ArrayDeque<>(HISTORY_SIZE);
+
+    private long lastId;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor();
+
+    @PostConstruct
+    public void start() {
+        heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(subscriber ->
+                        subscriber.enqueue(SseEmitter.event().comment("heartbeat"), false)),
+                HEARTBEAT_INTERVAL, HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(final TaskFilterDTO filterDTO, final String lastEventId) {
+        if (subscribers.size() >= MAX_SUBSCRIBERS) {
+            throw new TooManyRequestsException("Too many subscribers of the task stream");
+        }
+
+        var subscriber = new Subscriber(new SseEmitter(TIMEOUT), taskSpecification.matcher(filterDTO));
+        synchronized (this) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(final TaskChangeEvent event) {
+        // under the lock, so that a subscriber being replayed does not miss or duplicate the event
+        synchronized (this) {
+            var entry = new Entry(++lastId, event);
+            if (history.size() == HISTORY_SIZE) {
+                history.removeFirst();
+            }
+            history.addLast(entry);
+            subscribers.forEach(subscriber -> subscriber.offer(entry, false));
+        }
+    }
+
+    private void replay(final Subscriber subscriber, final String lastEventId) {
+        var position = parsePosition(lastEventId);
+        var oldestId = history.isEmpty() ? lastId + 1 : history.getFirst().id();
+        if (position == null || position > lastId || position < oldestId - 1) {
+            subscriber.enqueue(SseEmitter.event().name(RESET_EVENT).data(""), true);
+            return;
+        }
+
+        history.stream()
+                .filter(entry -> entry.id() > position)
+                .forEach(entry -> subscriber.offer(entry, true));
+    }
+
+    // the sequence of an event id of this epoch, null for any other id
+    private Long parsePosition(final String eventId) {
+        var prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Entry(long id, TaskChangeEvent event) {
+    }
+
+    private record Queued(SseEmitter.SseEventBuilder event, boolean counted) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final Predicate<TaskDTO> filter;
+
+        private final Queue<Queued> buffer = new ConcurrentLinkedQueue<>();
+
+        // live events waiting in the buffer, the replayed ones are not counted
+        private final AtomicInteger buffered = new AtomicInteger();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private Subscriber(final SseEmitter emitter, final Predicate<TaskDTO> filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+            emitter.onCompletion(() -> {
+                closed = true;
+                subscribers.remove(this);
+            });
+            emitter.onTimeout(this::close);
+            emitter.onError(error -> close());
+        }
+
+        private void offer(final Entry entry, final boolean replay) {
+            var event = entry.event();
+            var matches = filter.test(event.getTask());
+            var matched = event.getPrevious() != null && filter.test(event.getPrevious());
+            if (!matches && !matched) {
+                return;
+            }
+
+            var name = matches ? event.getType().name().toLowerCase(Locale.ROOT) : REMOVED_EVENT;
+            enqueue(SseEmitter.event().id(epoch + "-" + entry.id()).name(name).data(event.getTask()), replay);
+        }
+
+        // replayed events are not limited, the history is bounded already
+        private void enqueue(final SseEmitter.SseEventBuilder event, final boolean replay) {
+            if (closed) {
+                return;
+            }
+            if (!replay && buffered.incrementAndGet() > BUFFER_SIZE) {
+                close();
+                return;
+            }
+
+            buffer.add(new Queued(event, !replay));
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    Queued queued;
+                    while ((queued = buffer.poll()) != null) {
+                        if (queued.counted()) {
+                            buffered.decrementAndGet();
+                        }
+                        emitter.send(queued.event());
+                    }
+                    draining.set(false);
+                } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            emitter.complete();
+        }
+
+    }
+
+}
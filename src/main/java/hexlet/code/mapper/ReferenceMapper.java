@@ -7,11 +7,18 @@ import org.mapstruct.MappingConstants;
 import org.mapstruct.TargetType;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
 @Mapper(
         componentModel = MappingConstants.ComponentModel.SPRING
 )
 public abstract class ReferenceMapper {
 
+    private static final int PREFETCH_CHUNK_SIZE = 1000;
+
     @Autowired
     private EntityManager entityManager;
 
@@ -19,4 +26,32 @@ public abstract class ReferenceMapper {
         return id != null ? entityManager.find(entityClass, id) : null;
     }
 
+    /**
+     * Loads the entities with the given ids with one IN query per {@value #PREFETCH_CHUNK_SIZE} ids.
+     * They stay in the persistence context, so the {@link #toEntity} calls of a batch mapping running in
+     * the same transaction find them there instead of selecting them one by one.
+     * Returns the ids that exist.
+     */
+    public <T extends BaseEntity> Set<Long> prefetch(Collection<Long> ids, Class<T> entityClass) {
+        var distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        var persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        var found = new HashSet<Long>();
+
+        for (var from = 0; from < distinctIds.size(); from += PREFETCH_CHUNK_SIZE) {
+            var chunk = distinctIds.subList(from, Math.min(from + PREFETCH_CHUNK_SIZE, distinctIds.size()));
+            var cb = entityManager.getCriteriaBuilder();
+            var query = cb.createQuery(entityClass);
+            var root = query.from(entityClass);
+            query.select(root).where(root.get("id").in(chunk));
+
+            entityManager.createQuery(query).getResultList()
+                    .forEach(entity -> found.add((Long) persistenceUnitUtil.getIdentifier(entity)));
+        }
+
+        return found;
+    }
+
 }
@@ -1,5 +1,6 @@
 package hexlet.code.mapper;
 
+import hexlet.code.component.ReferenceDataCache;
 import hexlet.code.dto.task.TaskCreateDTO;
 import hexlet.code.dto.task.TaskDTO;
 import hexlet.code.dto.task.TaskUpdateDTO;
@@ -7,8 +8,8 @@ import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.model.Label;
 import hexlet.code.model.Task;
 import hexlet.code.model.TaskStatus;
-import hexlet.code.repository.LabelRepository;
-import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.model.User;
+import jakarta.persistence.EntityManager;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -18,7 +19,10 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.ReportingPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -31,10 +35,13 @@ import java.util.stream.Collectors;
 public abstract class TaskMapper {
 
     @Autowired
-    private TaskStatusRepository taskStatusRepository;
+    private ReferenceDataCache referenceDataCache;
 
     @Autowired
-    private LabelRepository labelRepository;
+    private ReferenceMapper referenceMapper;
+
+    @Autowired
+    private EntityManager entityManager;
 
     @Mapping(target = "name", source = "title")
     @Mapping(target = "assignee", source = "assigneeId")
@@ -57,16 +64,52 @@ public abstract class TaskMapper {
     @Mapping(target = "labels", source = "taskLabelIds", qualifiedByName = "labelIdsToLabel")
     public abstract void update(TaskUpdateDTO dto, @MappingTarget Task task);
 
+    /**
+     * Maps a batch of DTOs after resolving the references of all of them together, see {@link #prefetch}.
+     * Has to run in a transaction: the prefetched assignees live in its persistence context.
+     */
+    public List<Task> map(List<TaskCreateDTO> dtos) {
+        prefetch(dtos);
+        return dtos.stream().map(this::map).toList();
+    }
+
+    /**
+     * Resolves the assignees of the DTOs with one IN query, and warms the status and label caches with
+     * one query for the misses of each, so that mapping the DTOs one by one afterwards selects nothing more.
+     * Returns the ids of the assignees that exist.
+     */
+    public Set<Long> prefetch(Collection<TaskCreateDTO> dtos) {
+        referenceDataCache.findTaskStatusesBySlugs(dtos.stream()
+                .map(TaskCreateDTO::getStatus)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        referenceDataCache.findLabelsByIds(dtos.stream()
+                .map(TaskCreateDTO::getTaskLabelIds)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet()));
+
+        return referenceMapper.prefetch(dtos.stream().map(TaskCreateDTO::getAssigneeId).toList(), User.class);
+    }
+
+    // references rather than snapshots: TaskStatus and Label are versioned, so Hibernate takes a detached
+    // instance without a version for a new one; a reference is also not selected until it is read
     @Named("slugToTasStatus")
     public TaskStatus slugToTaskStatus(String slug) {
-        return taskStatusRepository.findBySlug(slug).orElseThrow(
-                () -> new ResourceNotFoundException("TaskStatus with slug " + slug + " not found"));
+        var taskStatus = referenceDataCache.findTaskStatusBySlug(slug);
+        if (taskStatus == null) {
+            throw new ResourceNotFoundException("TaskStatus with slug " + slug + " not found");
+        }
+
+        return entityManager.getReference(TaskStatus.class, taskStatus.getId());
     }
 
     @Named("labelIdsToLabel")
     public Set<Label> labelIdToLabel(Set<Long> labelIds) {
         return labelIds == null ? new HashSet<>()
-                : labelRepository.findByIdIn(labelIds);
+                : referenceDataCache.findLabelsByIds(labelIds).stream()
+                .map(label -> entityManager.getReference(Label.class, label.getId()))
+                .collect(Collectors.toSet());
     }
 
     protected Set<Long> mapLabelsToIds(Set<Label> labels) {
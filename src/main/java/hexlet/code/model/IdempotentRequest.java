@@ -0,0 +1,44 @@
+package hexlet.code.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * A create request made with an Idempotency-Key. The response is empty while the request is in progress.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@Setter
+@Accessors(chain = true)
+public class IdempotentRequest implements BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    private String scope;
+
+    @Column(name = "idempotency_key")
+    private String key;
+
+    private String requestHash;
+
+    private String response;
+
+    private Instant createdAt;
+
+    @Version
+    private Long version;
+
+}
@@ -1,15 +1,16 @@
 package hexlet.code.model;
 
+import hexlet.code.component.ChangeStampListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
@@ -26,7 +27,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "labels")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, ChangeStampListener.class})
 @Getter
 @Setter
 @Accessors(chain = true)
@@ -44,7 +45,10 @@ public class Label implements BaseEntity {
     @CreatedDate
     private LocalDate createdAt;
 
-    @ManyToMany(mappedBy = "labels", fetch = FetchType.EAGER, cascade = CascadeType.MERGE)
+    @Version
+    private Long version;
+
+    @ManyToMany(mappedBy = "labels", cascade = CascadeType.MERGE)
     private Set<Task> tasks = new HashSet<>();
 
     public void addTask(final Task task) {
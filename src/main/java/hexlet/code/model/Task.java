@@ -1,20 +1,25 @@
 package hexlet.code.model;
 
-import jakarta.persistence.CascadeType;
+import hexlet.code.component.ChangeStampListener;
+import hexlet.code.search.TaskSearchIndexListener;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -24,13 +29,19 @@ import java.util.Set;
 
 @Entity
 @Table(name = "tasks")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, ChangeStampListener.class, TaskSearchIndexListener.class})
 @Getter
 @Setter
 public class Task implements BaseEntity {
 
+    public static final int LABELS_BATCH_SIZE = 100;
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // a sequence instead of IDENTITY, so that Hibernate can batch inserts; the step matches the JDBC batch size
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank
@@ -38,10 +49,11 @@ public class Task implements BaseEntity {
 
     private Integer index;
 
-    @Lob
+    // text rather than @Lob, which PostgreSQL stores as a large object that cannot be indexed for search
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
     private String description;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ManyToOne
     @NotNull
     private TaskStatus taskStatus;
 
@@ -49,10 +61,15 @@ public class Task implements BaseEntity {
     @ManyToOne
     private User assignee;
 
-    @ManyToMany(cascade = CascadeType.MERGE)
+    @ManyToMany
+    @BatchSize(size = LABELS_BATCH_SIZE)
     private Set<Label> labels = new HashSet<>();
 
     @CreatedDate
     private LocalDate createdAt;
 
+    // incremented by Hibernate on every update, serves as the ETag of the entity
+    @Version
+    private Long version;
+
 }
@@ -1,5 +1,6 @@
 package hexlet.code.model;
 
+import hexlet.code.component.ChangeStampListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
@@ -7,6 +8,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
@@ -18,7 +20,7 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "task_statuses")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, ChangeStampListener.class})
 @Getter
 @Setter
 @Accessors(chain = true)
@@ -39,4 +41,7 @@ public class TaskStatus implements BaseEntity {
     @CreatedDate
     private LocalDate createdAt;
 
+    @Version
+    private Long version;
+
 }
@@ -0,0 +1,21 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.IdempotentRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotentRequestRepository extends JpaRepository<IdempotentRequest, Long> {
+    Optional<IdempotentRequest> findByScopeAndKey(String scope, String key);
+
+    @Modifying
+    @Query("delete from IdempotentRequest r where r.createdAt < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") Instant createdBefore);
+
+}
@@ -1,7 +1,10 @@
 package hexlet.code.repository;
 
 import hexlet.code.model.Label;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,6 +14,12 @@ import java.util.Set;
 public interface LabelRepository extends JpaRepository<Label, Long> {
     Optional<Label> findByName(String name);
 
+    @Query("select l.version from Label l where l.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
     Set<Label> findByIdIn(Set<Long> labelsId);
 
+    @EntityGraph(attributePaths = "tasks")
+    Optional<Label> findWithTasksById(long id);
+
 }
@@ -1,14 +1,74 @@
 package hexlet.code.repository;
 
+import hexlet.code.dto.task.TaskRank;
 import hexlet.code.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskRepositoryCustom {
     Optional<Task> findByName(String name);
 
+    @Query("select t.version from Task t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    // whether any task still points to the entity, checked before a delete that TaskCounters does not allow
+
+    boolean existsByTaskStatusId(long taskStatusId);
+
+    boolean existsByAssigneeId(long assigneeId);
+
+    boolean existsByLabelsId(long labelId);
+
+    // grouped counts for TaskCounters: the key columns followed by the count
+
+    @Query("select t.taskStatus.id, count(t) from Task t group by t.taskStatus.id")
+    List<Object[]> countByStatus();
+
+    @Query("select t.assignee.id, count(t) from Task t where t.assignee is not null group by t.assignee.id")
+    List<Object[]> countByAssignee();
+
+    @Query("select l.id, count(t) from Task t join t.labels l group by l.id")
+    List<Object[]> countByLabel();
+
+    @Query("""
+            select t.assignee.id, t.taskStatus.id, count(t) from Task t
+            where t.assignee is not null
+            group by t.assignee.id, t.taskStatus.id
+            """)
+    List<Object[]> countByAssigneeAndStatus();
+
+    Optional<TaskRank> findRankByIdAndTaskStatusId(Long id, Long taskStatusId);
+
+    // the neighbour ranks of a move, read from the (task_status_id, index) index; the moved task is left out
+
+    @Query("select min(t.index) from Task t where t.taskStatus.id = :statusId and t.index > :index and t.id <> :id")
+    Optional<Integer> findNextIndex(@Param("statusId") long statusId, @Param("index") int index, @Param("id") long id);
+
+    @Query("select max(t.index) from Task t where t.taskStatus.id = :statusId and t.index < :index and t.id <> :id")
+    Optional<Integer> findPreviousIndex(@Param("statusId") long statusId, @Param("index") int index,
+                                        @Param("id") long id);
+
+    @Query("select max(t.index) from Task t where t.taskStatus.id = :statusId and t.id <> :id")
+    Optional<Integer> findMaxIndex(@Param("statusId") long statusId, @Param("id") long id);
+
+    @Query("""
+            select t.id as id, t.index as index from Task t
+            where t.taskStatus.id = :statusId and t.id <> :excludedId
+            order by t.index asc nulls last, t.id
+            """)
+    List<TaskRank> findColumnRanks(@Param("statusId") long statusId, @Param("excludedId") long excludedId);
+
+    @Modifying
+    @Query("update Task t set t.index = :index, t.version = t.version + 1 where t.id = :id")
+    int updateIndex(@Param("id") long id, @Param("index") int index);
+
 }
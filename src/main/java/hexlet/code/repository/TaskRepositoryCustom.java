@@ -0,0 +1,66 @@
+package hexlet.code.repository;
+
+import hexlet.code.dto.board.BoardColumnDTO;
+import hexlet.code.dto.board.BoardCursor;
+import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.model.Task;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Loads one page of tasks without the count query that {@code findAll(spec, pageable)} issues.
+     * The page is read as plain column tuples straight into {@link TaskDTO}: no managed entities are created,
+     * label ids are collected with one extra query for the whole page.
+     */
+    List<TaskDTO> findPageProjected(Specification<Task> spec, Sort sort, int offset, int limit);
+
+    /**
+     * Reads all matching tasks as projections through a forward-only cursor and hands them over
+     * in chunks of {@code chunkSize}. The chunk list is reused, consumers must not keep it.
+     * Has to be called inside a transaction, so that the JDBC driver can stream the result.
+     */
+    void forEachChunkProjected(Specification<Task> spec, Sort sort, int chunkSize, Consumer<List<TaskDTO>> consumer);
+
+    /**
+     * Ids of all tasks matching {@code spec}, in no particular order.
+     */
+    List<Long> findIds(Specification<Task> spec);
+
+    /**
+     * The task board: every task status with its number of tasks and its first {@code limit} tasks
+     * ordered by index (tasks without one last), read in one statement with window functions.
+     * The next cursors of the columns are left to the caller.
+     */
+    List<BoardColumnDTO> findBoard(int limit);
+
+    /**
+     * The tasks of one board column after {@code cursor} (from the start when it is null), in the board order.
+     */
+    List<TaskDTO> findBoardColumnPage(String slug, BoardCursor cursor, int limit);
+
+    /**
+     * Updates the tasks with one statement, bypassing the persistence context and the entity listeners.
+     * The status is set unless {@code statusId} is null, the assignee when {@code assigneeId} is present
+     * (a null value unassigns); the version is always incremented. Returns the number of updated tasks.
+     */
+    int bulkUpdate(Collection<Long> ids, Long statusId, JsonNullable<Long> assigneeId);
+
+    /**
+     * Links the labels to the tasks and unlinks the others with one statement each on the join table.
+     */
+    void bulkRelabel(Collection<Long> ids, Set<Long> addLabelIds, Set<Long> removeLabelIds);
+
+    /**
+     * Deletes the tasks and their label links, bypassing the entity listeners. Returns the number of deleted tasks.
+     */
+    int bulkDelete(Collection<Long> ids);
+
+}
@@ -0,0 +1,329 @@
+package hexlet.code.repository;
+
+import hexlet.code.dto.board.BoardColumnDTO;
+import hexlet.code.dto.board.BoardCursor;
+import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String INDEX = "index";
+    private static final String DESCRIPTION = "description";
+    private static final String STATUS = "status";
+    private static final String ASSIGNEE_ID = "assigneeId";
+    private static final String CREATED_AT = "createdAt";
+    private static final String TASK_ID = "taskId";
+    private static final String LABEL_ID = "labelId";
+
+    // native, as neither the window functions in a derived table nor "nulls last" are portable through JPQL
+    private static final String BOARD_QUERY = """
+            select s.id as status_id, s.name as status_name, s.slug as status_slug, r.total as task_count,
+                r.id as task_id, r.name as task_name, r.index as task_index, r.description as task_description,
+                r.assignee_id as assignee_id, r.created_at as created_at
+            from task_statuses s
+            left join (
+                select t.id, t.name, t.index, t.description, t.assignee_id, t.created_at, t.task_status_id,
+                    row_number() over (partition by t.task_status_id order by t.index nulls last, t.id) as position,
+                    count(*) over (partition by t.task_status_id) as total
+                from tasks t
+            ) r on r.task_status_id = s.id and r.position <= :limit
+            order by s.id, r.position
+            """;
+
+    private static final String BOARD_COLUMN_QUERY = """
+            select t.id as task_id, t.name as task_name, t.index as task_index, t.description as task_description,
+                t.assignee_id as assignee_id, t.created_at as created_at
+            from tasks t
+            join task_statuses s on s.id = t.task_status_id
+            where s.slug = :slug %s
+            order by t.index nulls last, t.id
+            limit :limit
+            """;
+
+    private static final String AFTER_INDEX =
+            "and (t.index > :index or t.index = :index and t.id > :id or t.index is null)";
+
+    private static final String AFTER_NO_INDEX = "and t.index is null and t.id > :id";
+
+    private static final String LINK_LABELS = """
+            insert into tasks_labels (tasks_id, labels_id)
+            select t.id, l.id
+            from tasks t
+            cross join labels l
+            where t.id in (:ids) and l.id in (:labelIds)
+                and not exists (select 1 from tasks_labels tl where tl.tasks_id = t.id and tl.labels_id = l.id)
+            """;
+
+    private static final String UNLINK_LABELS =
+            "delete from tasks_labels where tasks_id in (:ids) and labels_id in (:labelIds)";
+
+    private static final String UNLINK_ALL_LABELS = "delete from tasks_labels where tasks_id in (:ids)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskDTO> findPageProjected(Specification<Task> spec, Sort sort, int offset, int limit) {
+        var tasks = entityManager.createQuery(createProjectedQuery(spec, sort))
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(this::toTaskDTO)
+                .toList();
+
+        fillLabelIds(tasks);
+
+        return tasks;
+    }
+
+    @Override
+    public void forEachChunkProjected(Specification<Task> spec, Sort sort, int chunkSize,
+                                      Consumer<List<TaskDTO>> consumer) {
+        var chunk = new ArrayList<TaskDTO>(chunkSize);
+        var rows = entityManager.createQuery(createProjectedQuery(spec, sort))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, chunkSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+
+        try (rows) {
+            rows.map(this::toTaskDTO).forEach(task -> {
+                chunk.add(task);
+                if (chunk.size() == chunkSize) {
+                    fillLabelIds(chunk);
+                    consumer.accept(chunk);
+                    chunk.clear();
+                }
+            });
+        }
+
+        if (!chunk.isEmpty()) {
+            fillLabelIds(chunk);
+            consumer.accept(chunk);
+        }
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Task> spec) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Long.class);
+        var root = query.from(Task.class);
+
+        applySpecification(spec, Sort.unsorted(), root, query, criteriaBuilder);
+        query.select(root.get("id"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<BoardColumnDTO> findBoard(int limit) {
+        List<Object[]> rows = entityManager.createNativeQuery(BOARD_QUERY, Object[].class)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        var columns = new LinkedHashMap<Long, BoardColumnDTO>();
+        var tasks = new ArrayList<TaskDTO>();
+        for (var row : rows) {
+            var column = columns.computeIfAbsent(toLong(row[0]), id -> {
+                var dto = new BoardColumnDTO();
+                dto.setId(id);
+                dto.setName((String) row[1]);
+                dto.setSlug((String) row[2]);
+                dto.setCount(row[3] == null ? 0 : toLong(row[3]));
+                return dto;
+            });
+            if (row[4] != null) {
+                var task = toTaskDTO(row, 4, column.getSlug());
+                column.getTasks().add(task);
+                tasks.add(task);
+            }
+        }
+
+        fillLabelIds(tasks);
+
+        return new ArrayList<>(columns.values());
+    }
+
+    @Override
+    public List<TaskDTO> findBoardColumnPage(String slug, BoardCursor cursor, int limit) {
+        var after = cursor == null ? "" : cursor.getIndex() == null ? AFTER_NO_INDEX : AFTER_INDEX;
+        var query = entityManager.createNativeQuery(BOARD_COLUMN_QUERY.formatted(after), Object[].class)
+                .setParameter("slug", slug)
+                .setParameter("limit", limit);
+        if (cursor != null) {
+            query.setParameter("id", cursor.getId());
+            if (cursor.getIndex() != null) {
+                query.setParameter("index", cursor.getIndex());
+            }
+        }
+
+        List<Object[]> rows = query.getResultList();
+        var tasks = rows.stream()
+                .map(row -> toTaskDTO(row, 0, slug))
+                .toList();
+
+        fillLabelIds(tasks);
+
+        return tasks;
+    }
+
+    @Override
+    public int bulkUpdate(Collection<Long> ids, Long statusId, JsonNullable<Long> assigneeId) {
+        var jpql = new StringBuilder("update Task t set t.version = t.version + 1");
+        if (statusId != null) {
+            jpql.append(", t.taskStatus = :status");
+        }
+        if (assigneeId.isPresent()) {
+            jpql.append(assigneeId.get() == null ? ", t.assignee = null" : ", t.assignee = :assignee");
+        }
+        jpql.append(" where t.id in :ids");
+
+        var query = entityManager.createQuery(jpql.toString()).setParameter("ids", ids);
+        if (statusId != null) {
+            query.setParameter("status", entityManager.getReference(TaskStatus.class, statusId));
+        }
+        if (assigneeId.isPresent() && assigneeId.get() != null) {
+            query.setParameter("assignee", entityManager.getReference(User.class, assigneeId.get()));
+        }
+
+        return query.executeUpdate();
+    }
+
+    @Override
+    public void bulkRelabel(Collection<Long> ids, Set<Long> addLabelIds, Set<Long> removeLabelIds) {
+        if (!removeLabelIds.isEmpty()) {
+            entityManager.createNativeQuery(UNLINK_LABELS)
+                    .setParameter("ids", ids)
+                    .setParameter("labelIds", removeLabelIds)
+                    .executeUpdate();
+        }
+        if (!addLabelIds.isEmpty()) {
+            entityManager.createNativeQuery(LINK_LABELS)
+                    .setParameter("ids", ids)
+                    .setParameter("labelIds", addLabelIds)
+                    .executeUpdate();
+        }
+    }
+
+    @Override
+    public int bulkDelete(Collection<Long> ids) {
+        entityManager.createNativeQuery(UNLINK_ALL_LABELS)
+                .setParameter("ids", ids)
+                .executeUpdate();
+
+        return entityManager.createQuery("delete from Task t where t.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    private CriteriaQuery<Tuple> createProjectedQuery(Specification<Task> spec, Sort sort) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(Task.class);
+        var taskStatus = root.join("taskStatus", JoinType.INNER);
+        var assignee = root.join("assignee", JoinType.LEFT);
+
+        applySpecification(spec, sort, root, query, criteriaBuilder);
+        return query.multiselect(
+                root.get("id").alias(ID),
+                root.get("name").alias(NAME),
+                root.get("index").alias(INDEX),
+                root.get("description").alias(DESCRIPTION),
+                taskStatus.get("slug").alias(STATUS),
+                assignee.get("id").alias(ASSIGNEE_ID),
+                root.get("createdAt").alias(CREATED_AT));
+    }
+
+    private void applySpecification(Specification<Task> spec, Sort sort, Root<Task> root,
+                                    CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        var predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+    }
+
+    private TaskDTO toTaskDTO(Tuple tuple) {
+        var dto = new TaskDTO();
+        dto.setId(tuple.get(ID, Long.class));
+        dto.setTitle(tuple.get(NAME, String.class));
+        dto.setIndex(tuple.get(INDEX, Integer.class));
+        dto.setContent(tuple.get(DESCRIPTION, String.class));
+        dto.setStatus(tuple.get(STATUS, String.class));
+        dto.setAssigneeId(tuple.get(ASSIGNEE_ID, Long.class));
+        dto.setCreatedAt(tuple.get(CREATED_AT, LocalDate.class));
+        return dto;
+    }
+
+    // id, name, index, description, assignee_id, created_at of a native row, starting at offset
+    private TaskDTO toTaskDTO(Object[] row, int offset, String status) {
+        var dto = new TaskDTO();
+        dto.setId(toLong(row[offset]));
+        dto.setTitle((String) row[offset + 1]);
+        dto.setIndex(row[offset + 2] == null ? null : ((Number) row[offset + 2]).intValue());
+        dto.setContent((String) row[offset + 3]);
+        dto.setStatus(status);
+        dto.setAssigneeId(row[offset + 4] == null ? null : toLong(row[offset + 4]));
+        dto.setCreatedAt(toLocalDate(row[offset + 5]));
+        return dto;
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    // drivers return DATE columns of native queries as java.sql.Date
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private void fillLabelIds(List<TaskDTO> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(Task.class);
+        var labels = root.join("labels", JoinType.INNER);
+        var ids = tasks.stream().map(TaskDTO::getId).toList();
+
+        query.multiselect(root.get("id").alias(TASK_ID), labels.get("id").alias(LABEL_ID))
+                .where(root.get("id").in(ids));
+
+        Map<Long, TaskDTO> tasksById = tasks.stream()
+                .collect(Collectors.toMap(TaskDTO::getId, Function.identity()));
+        entityManager.createQuery(query).getResultStream()
+                .forEach(tuple -> tasksById.get(tuple.get(TASK_ID, Long.class))
+                        .getTaskLabelIds()
+                        .add(tuple.get(LABEL_ID, Long.class)));
+    }
+
+}
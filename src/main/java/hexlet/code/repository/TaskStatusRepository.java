@@ -1,13 +1,29 @@
 package hexlet.code.repository;
 
 import hexlet.code.model.TaskStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TaskStatusRepository extends JpaRepository<TaskStatus, Long> {
     Optional<TaskStatus> findBySlug(String slug);
 
+    List<TaskStatus> findBySlugIn(Collection<String> slugs);
+
+    @Query("select ts.version from TaskStatus ts where ts.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    // locks the row until the end of the transaction, see TaskRankRebalancer#lockColumn
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select ts from TaskStatus ts where ts.id = :id")
+    Optional<TaskStatus> findForUpdateById(@Param("id") long id);
+
 }
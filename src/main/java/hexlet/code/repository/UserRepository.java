@@ -1,7 +1,11 @@
 package hexlet.code.repository;
 
+import hexlet.code.dto.user.UserCredentials;
 import hexlet.code.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +14,13 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    Optional<UserCredentials> findCredentialsByEmail(String email);
+
+    @Modifying
+    @Query("update User u set u.passwordDigest = :passwordDigest where u.email = :email")
+    int updatePasswordDigest(@Param("email") String email, @Param("passwordDigest") String passwordDigest);
+
 }
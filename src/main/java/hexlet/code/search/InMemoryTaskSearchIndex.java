@@ -0,0 +1,193 @@
+package hexlet.code.search;
+
+import hexlet.code.model.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index kept in memory, used with H2 where the database has no full-text search.
+ * Every query term has to match (as a prefix) a term of the name or the description;
+ * tasks are ranked by tf-idf, name terms counting more than description terms.
+ */
+@Component
+@Profile("!prod")
+public class InMemoryTaskSearchIndex implements TaskSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // one occurrence in the name weighs as much as this many occurrences in the description
+    private static final int NAME_WEIGHT = 3;
+
+    // a query term that is only a prefix of the indexed term scores less than an exact match
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    // term -> task id -> weighted term frequency
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    // task id -> its terms, so that a task is removed without scanning all postings
+    private final Map<Long, Set<String>> documents = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            try (var rows = entityManager
+                    .createQuery("select t.id, t.name, t.description from Task t", Object[].class)
+                    .getResultStream()) {
+                rows.forEach(row -> add((Long) row[0], (String) row[1], (String) row[2]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        var terms = tokenize(query).distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (var term : terms) {
+                var termScores = score(term);
+                if (scores != null) {
+                    termScores.keySet().retainAll(scores.keySet());
+                    scores.forEach((id, score) -> termScores.computeIfPresent(id, (key, value) -> value + score));
+                }
+                if (termScores.isEmpty()) {
+                    return List.of();
+                }
+                scores = termScores;
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Task task) {
+        // read now, the entity may change before the commit
+        var id = task.getId();
+        var name = task.getName();
+        var description = task.getDescription();
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(id);
+                add(id, name, description);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(long id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // a change made in a transaction is applied once it commits, so that a rollback leaves the index as it was
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private Map<Long, Double> score(String term) {
+        var termScores = new HashMap<Long, Double>();
+        var matches = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        for (var entry : matches.entrySet()) {
+            var idf = Math.log(1.0 + (double) documents.size() / entry.getValue().size());
+            var weight = entry.getKey().equals(term) ? idf : idf * PREFIX_WEIGHT;
+            entry.getValue().forEach((id, frequency) -> termScores.merge(id, frequency * weight, Double::sum));
+        }
+        return termScores;
+    }
+
+    private void add(Long id, String name, String description) {
+        var frequencies = new HashMap<String, Integer>();
+        tokenize(name).forEach(term -> frequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+        documents.put(id, frequencies.keySet());
+    }
+
+    private void delete(Long id) {
+        var terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (var term : terms) {
+            var ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static Stream<String> tokenize(String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty());
+    }
+
+}
@@ -0,0 +1,52 @@
+package hexlet.code.search;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Searches with the PostgreSQL full-text search, backed by a GIN index over name and description,
+ * and with a trigram index on the name, which also serves partial words and the {@code titleCont} filter.
+ * Both indexes are created by the V3 migration.
+ */
+@Component
+@Profile("prod")
+public class PostgresTaskSearchIndex implements TaskSearchIndex {
+
+    // the same expression as tasks_search_idx, otherwise the index is not used
+    private static final String DOCUMENT =
+            "to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, ''))";
+
+    private static final String SEARCH_QUERY = """
+            select id from tasks
+            where %1$s @@ plainto_tsquery('simple', :query)
+                or lower(name) like :pattern escape '\\'
+            order by ts_rank(%1$s, plainto_tsquery('simple', :query)) + similarity(lower(name), :lowerQuery) desc,
+                id
+            limit :limit
+            """.formatted(DOCUMENT);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        var lowerQuery = query.toLowerCase(Locale.ROOT);
+        var pattern = "%" + lowerQuery.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+
+        return entityManager.createNativeQuery(SEARCH_QUERY, Long.class)
+                .setParameter("query", query)
+                .setParameter("lowerQuery", lowerQuery)
+                .setParameter("pattern", pattern)
+                .setParameter("limit", limit)
+                .getResultList()
+                .stream()
+                .map(Long.class::cast)
+                .toList();
+    }
+
+}
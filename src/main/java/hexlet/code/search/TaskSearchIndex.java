@@ -0,0 +1,31 @@
+package hexlet.code.search;
+
+import hexlet.code.model.Task;
+
+import java.util.List;
+
+/**
+ * Full-text search over task name and description.
+ */
+public interface TaskSearchIndex {
+
+    /**
+     * Ids of the tasks matching {@code query}, most relevant first, at most {@code limit} of them.
+     */
+    List<Long> search(String query, int limit);
+
+    /**
+     * Called after a task is inserted or updated, possibly before the transaction commits: the change has to
+     * be applied only once it does. Indexes maintained by the database ignore it.
+     */
+    default void index(Task task) {
+    }
+
+    /**
+     * Called after a task is deleted, possibly before the transaction commits, as {@link #index} is.
+     * Indexes maintained by the database ignore it.
+     */
+    default void remove(long id) {
+    }
+
+}
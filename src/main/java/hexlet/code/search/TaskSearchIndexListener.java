@@ -0,0 +1,30 @@
+package hexlet.code.search;
+
+import hexlet.code.model.Task;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Keeps the {@link TaskSearchIndex} in sync with every write made through the entity manager.
+ * The index is looked up lazily, as it is created after the entity manager factory.
+ */
+public class TaskSearchIndexListener {
+
+    @Autowired
+    private ObjectProvider<TaskSearchIndex> taskSearchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Task task) {
+        taskSearchIndex.ifAvailable(index -> index.index(task));
+    }
+
+    @PostRemove
+    public void onRemove(Task task) {
+        taskSearchIndex.ifAvailable(index -> index.remove(task.getId()));
+    }
+
+}
@@ -0,0 +1,81 @@
+package hexlet.code.service;
+
+import hexlet.code.component.ReferenceDataCache;
+import hexlet.code.config.MetricsConfig;
+import hexlet.code.dto.board.BoardColumnDTO;
+import hexlet.code.dto.board.BoardCursor;
+import hexlet.code.dto.board.BoardDTO;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.ResourceNotFoundException;
+import hexlet.code.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+@AllArgsConstructor
+public class BoardService {
+
+    public static final int DEFAULT_COLUMN_SIZE = 20;
+
+    private static final int MAX_COLUMN_SIZE = 100;
+
+    @Autowired
+    private final TaskRepository taskRepository;
+
+    @Autowired
+    private final ReferenceDataCache referenceDataCache;
+
+    @Transactional(readOnly = true)
+    public BoardDTO getBoard(final int limit) {
+        var columns = taskRepository.findBoard(checkLimit(limit));
+        for (var column : columns) {
+            var tasks = column.getTasks();
+            if (column.getCount() > tasks.size()) {
+                column.setNextCursor(BoardCursor.after(tasks.get(tasks.size() - 1)).toString());
+            }
+        }
+
+        var board = new BoardDTO();
+        board.setColumns(columns);
+        return board;
+
+    }
+
+    @Transactional(readOnly = true)
+    public BoardColumnDTO getColumn(final String slug, final String cursor, final int limit) {
+        var taskStatus = referenceDataCache.findTaskStatusBySlug(slug);
+        if (taskStatus == null) {
+            throw new ResourceNotFoundException(String.format("TaskStatus with slug %s not found", slug));
+        }
+
+        var after = cursor == null || cursor.isEmpty() ? null : BoardCursor.parse(cursor);
+        var size = checkLimit(limit);
+        // one extra row tells whether the column goes on without counting it
+        var tasks = taskRepository.findBoardColumnPage(slug, after, size + 1);
+
+        var column = new BoardColumnDTO();
+        column.setId(taskStatus.getId());
+        column.setName(taskStatus.getName());
+        column.setSlug(taskStatus.getSlug());
+        if (tasks.size() > size) {
+            tasks = tasks.subList(0, size);
+            column.setNextCursor(BoardCursor.after(tasks.get(size - 1)).toString());
+        }
+        column.setTasks(tasks);
+        return column;
+
+    }
+
+    private int checkLimit(final int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("limit must be positive");
+        }
+
+        return Math.min(limit, MAX_COLUMN_SIZE);
+    }
+
+}
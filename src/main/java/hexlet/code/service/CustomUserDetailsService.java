@@ -1,23 +1,50 @@
 package hexlet.code.service;
 
+import hexlet.code.config.MetricsConfig;
 import hexlet.code.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    /**
+     * Loads only the credentials of the user, not the user entity with its tasks.
+     */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        var user = userRepository.findByEmail(email)
+        var credentials = userRepository.findCredentialsByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException(String.format("User %s not found", email)));
-        return user;
+        return User.withUsername(credentials.getEmail())
+                .password(credentials.getPasswordDigest())
+                .authorities(List.of())
+                .build();
+    }
+
+    /**
+     * Called after a successful login when the stored digest was made with a lower BCrypt strength
+     * than the configured one.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordDigest(user.getUsername(), newPassword);
+        return User.withUserDetails(user)
+                .password(newPassword)
+                .build();
     }
 
 }
@@ -1,21 +1,30 @@
 package hexlet.code.service;
 
+import hexlet.code.component.RetryOnConflict;
+import hexlet.code.config.CacheConfig;
+import hexlet.code.config.MetricsConfig;
 import hexlet.code.dto.label.LabelCreateDTO;
 import hexlet.code.dto.label.LabelDTO;
 import hexlet.code.dto.label.LabelUpdateDTO;
+import hexlet.code.exception.PreconditionFailedException;
 import hexlet.code.exception.ResourceHasRelatedEntitiesException;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.LabelMapper;
 import hexlet.code.repository.LabelRepository;
 import hexlet.code.repository.TaskRepository;
+import hexlet.code.stats.TaskCounters;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @AllArgsConstructor
 public class LabelService {
 
@@ -28,6 +37,9 @@ public class LabelService {
     @Autowired
     private final LabelMapper labelMapper;
 
+    @Autowired
+    private final TaskCounters taskCounters;
+
     public List<LabelDTO> getAllLabels() {
         var labels = labelRepository.findAll();
 
@@ -35,6 +47,11 @@ public class LabelService {
 
     }
 
+    public Optional<Long> findLabelVersion(final long id) {
+        return labelRepository.findVersionById(id);
+
+    }
+
     public LabelDTO getLabel(final long id) {
         var label = labelRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format("Label with id %s not found", id)));
@@ -43,19 +60,28 @@ public class LabelService {
 
     }
 
+    @CacheEvict(cacheNames = CacheConfig.LABELS_BY_ID, allEntries = true)
     public LabelDTO createLabel(final LabelCreateDTO labelBody) {
         var label = labelMapper.map(labelBody);
-        labelRepository.save(label);
+        // the saved copy carries the incremented version
+        label = labelRepository.save(label);
 
         return labelMapper.map(label);
 
     }
 
+    @RetryOnConflict
+    @CacheEvict(cacheNames = CacheConfig.LABELS_BY_ID, allEntries = true)
     public LabelDTO updateLabel(final long id,
-                                final LabelUpdateDTO labelBody) {
+                                final LabelUpdateDTO labelBody,
+                                final Long expectedVersion) {
         var label = labelRepository.findById(id).orElseThrow(
                 () -> new ResourceNotFoundException(String.format("Label with id %s not found", id))
         );
+        if (expectedVersion != null && !expectedVersion.equals(label.getVersion())) {
+            throw new PreconditionFailedException(
+                    String.format("Label with id %s has version %s, not %s", id, label.getVersion(), expectedVersion));
+        }
         labelMapper.update(labelBody, label);
         labelRepository.save(label);
 
@@ -63,14 +89,24 @@ public class LabelService {
 
     }
 
+    @CacheEvict(cacheNames = CacheConfig.LABELS_BY_ID, allEntries = true)
     public void deleteLabel(final long id) {
+        // a count of 0 spares the query; a positive one can be stale, so the database has the last word
+        if (taskCounters.countByLabel(id) > 0 && taskRepository.existsByLabelsId(id)) {
+            throw hasTasks(id);
+        }
+
         try {
             labelRepository.deleteById(id);
         } catch (DataIntegrityViolationException e) {
-            throw new ResourceHasRelatedEntitiesException(
-                    "{\"error\":\"Label with id: " + id + " can`t be deleted, it has tasks\"}");
+            throw hasTasks(id);
         }
 
     }
 
+    private ResourceHasRelatedEntitiesException hasTasks(final long id) {
+        return new ResourceHasRelatedEntitiesException(
+                "{\"error\":\"Label with id: " + id + " can`t be deleted, it has tasks\"}");
+    }
+
 }
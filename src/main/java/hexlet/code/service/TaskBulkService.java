@@ -0,0 +1,190 @@
+package hexlet.code.service;
+
+import hexlet.code.component.ChangeStamps;
+import hexlet.code.component.ReferenceDataCache;
+import hexlet.code.config.CacheConfig;
+import hexlet.code.config.MetricsConfig;
+import hexlet.code.dto.label.LabelDTO;
+import hexlet.code.dto.task.TaskBulkResultDTO;
+import hexlet.code.dto.task.TaskBulkSelectionDTO;
+import hexlet.code.dto.task.TaskBulkUpdateDTO;
+import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.dto.task.TaskFilterDTO;
+import hexlet.code.event.TaskChangeEvent;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.ResourceNotFoundException;
+import hexlet.code.model.Task;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.search.TaskSearchIndex;
+import hexlet.code.specification.TaskSpecification;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Updates and deletes many tasks at once, selected by id or by a task filter.
+ * The selection is resolved to ids first and then processed in chunks, each with set-based statements in its
+ * own transaction: nothing is merged entity by entity, and no transaction spans the whole operation.
+ * Chunks committed before a failing one stay committed.
+ * The statements bypass the entity listeners, so the change stamps, change events and search index are
+ * maintained here.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+@AllArgsConstructor
+public class TaskBulkService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final int MAX_IDS = 10_000;
+
+    @Autowired
+    private final TaskRepository taskRepository;
+
+    @Autowired
+    private final TaskService taskService;
+
+    @Autowired
+    private final TaskSpecification taskSpecification;
+
+    @Autowired
+    private final UserRepository userRepository;
+
+    @Autowired
+    private final ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private final ChangeStamps changeStamps;
+
+    @Autowired
+    private final TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private final ApplicationEventPublisher eventPublisher;
+
+    @CacheEvict(cacheNames = CacheConfig.TASK_COUNTS, allEntries = true)
+    public TaskBulkResultDTO updateTasks(final TaskBulkUpdateDTO dto) {
+        var statusId = dto.getStatus() == null ? null : findStatusId(dto.getStatus());
+        var assigneeId = dto.getAssigneeId() == null ? JsonNullable.<Long>undefined() : dto.getAssigneeId();
+        if (assigneeId.isPresent() && assigneeId.get() != null && !userRepository.existsById(assigneeId.get())) {
+            throw new ResourceNotFoundException(String.format("User with id %s not found", assigneeId.get()));
+        }
+        // unknown labels are skipped, as on single task updates
+        var addLabelIds = dto.getAddLabelIds() == null ? Set.<Long>of()
+                : referenceDataCache.findLabelsByIds(dto.getAddLabelIds()).stream()
+                .map(LabelDTO::getId)
+                .collect(Collectors.toSet());
+        var removeLabelIds = dto.getRemoveLabelIds() == null ? Set.<Long>of() : dto.getRemoveLabelIds();
+
+        if (statusId == null && !assigneeId.isPresent() && addLabelIds.isEmpty() && removeLabelIds.isEmpty()) {
+            throw new BadRequestException("Nothing to update: status, assignee_id, addLabelIds or removeLabelIds");
+        }
+
+        // the name and description stay the same, so the search index needs no update
+        return processInChunks(selectIds(dto), chunk -> {
+            var previous = findTasks(chunk);
+            var updated = taskRepository.bulkUpdate(chunk, statusId, assigneeId);
+            taskRepository.bulkRelabel(chunk, addLabelIds, removeLabelIds);
+
+            var current = findTasks(chunk).stream()
+                    .collect(Collectors.toMap(TaskDTO::getId, Function.identity()));
+            previous.stream()
+                    .filter(task -> current.containsKey(task.getId()))
+                    .forEach(task -> eventPublisher.publishEvent(
+                            TaskChangeEvent.updated(current.get(task.getId()), task)));
+            return updated;
+        });
+
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.TASK_COUNTS, allEntries = true)
+    public TaskBulkResultDTO deleteTasks(final TaskBulkSelectionDTO dto) {
+        return processInChunks(selectIds(dto), chunk -> {
+            var previous = findTasks(chunk);
+            var deleted = taskRepository.bulkDelete(chunk);
+
+            previous.forEach(task -> {
+                taskSearchIndex.remove(task.getId());
+                eventPublisher.publishEvent(TaskChangeEvent.deleted(task));
+            });
+            return deleted;
+        });
+
+    }
+
+    private TaskBulkResultDTO processInChunks(final List<Long> ids, final ToIntFunction<List<Long>> statements) {
+        long affected = 0;
+        for (var from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            var chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            affected += Objects.requireNonNull(transactionTemplate.execute(status -> {
+                changeStamps.touch(Task.class);
+                return statements.applyAsInt(chunk);
+            }));
+        }
+
+        return new TaskBulkResultDTO(affected);
+    }
+
+    // sorted, so that concurrent bulk operations lock the rows in the same order
+    private List<Long> selectIds(final TaskBulkSelectionDTO selection) {
+        var ids = selection.getIds();
+        var filter = selection.getFilter();
+        if (ids != null && filter != null) {
+            throw new BadRequestException("Either ids or filter can be given, not both");
+        }
+
+        if (ids != null) {
+            if (ids.size() > MAX_IDS) {
+                throw new BadRequestException(String.format("At most %s ids can be given", MAX_IDS));
+            }
+            return ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        }
+
+        // an empty filter would select every task, which is more likely a mistake than a sprint close
+        if (filter == null || !hasConditions(filter)) {
+            throw new BadRequestException("ids or a filter with at least one condition are required");
+        }
+
+        return taskService.findTaskIds(filter).stream().sorted().toList();
+    }
+
+    private boolean hasConditions(final TaskFilterDTO filter) {
+        return StringUtils.hasText(filter.getQ())
+                || filter.getTitleCont() != null
+                || filter.getAssigneeId() != null
+                || filter.getStatus() != null
+                || filter.getLabelId() != null;
+    }
+
+    private Long findStatusId(final String slug) {
+        var taskStatus = referenceDataCache.findTaskStatusBySlug(slug);
+        if (taskStatus == null) {
+            throw new ResourceNotFoundException(String.format("TaskStatus with slug %s not found", slug));
+        }
+
+        return taskStatus.getId();
+    }
+
+    private List<TaskDTO> findTasks(final List<Long> ids) {
+        return taskRepository.findPageProjected(taskSpecification.withIds(ids), Sort.by("id"), 0, ids.size());
+    }
+
+}
@@ -0,0 +1,157 @@
+package hexlet.code.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.component.ReferenceDataCache;
+import hexlet.code.config.CacheConfig;
+import hexlet.code.config.MetricsConfig;
+import hexlet.code.dto.task.TaskCreateDTO;
+import hexlet.code.dto.task.TaskImportResultDTO;
+import hexlet.code.event.TaskChangeEvent;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.mapper.TaskMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates tasks from a JSON array or NDJSON stream of {@link TaskCreateDTO}.
+ * Rows are read one by one and saved in batches: the statuses, labels and assignees of a batch are
+ * resolved together, the batch is inserted with JDBC batching in its own transaction, and the persistence
+ * context is cleared afterwards. A batch that fails to save is reported as failed row by row,
+ * batches saved before it stay saved.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+@AllArgsConstructor
+public class TaskImportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    private final Validator validator;
+
+    @Autowired
+    private final ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private final EntityManager entityManager;
+
+    @Autowired
+    private final TaskMapper taskMapper;
+
+    @Autowired
+    private final ApplicationEventPublisher eventPublisher;
+
+    @CacheEvict(cacheNames = CacheConfig.TASK_COUNTS, allEntries = true)
+    public List<TaskImportResultDTO> importTasks(final InputStream body) throws IOException {
+        var results = new ArrayList<TaskImportResultDTO>();
+        var batch = new ArrayList<TaskCreateDTO>(BATCH_SIZE);
+
+        try (MappingIterator<TaskCreateDTO> rows = objectMapper.readerFor(TaskCreateDTO.class).readValues(body)) {
+            while (rows.hasNextValue()) {
+                batch.add(rows.nextValue());
+                if (batch.size() == BATCH_SIZE) {
+                    results.addAll(importBatch(batch, results.size()));
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException(String.format("Row %s can`t be read, %s rows were processed: %s",
+                    results.size() + batch.size(), results.size(), e.getOriginalMessage()));
+        }
+
+        if (!batch.isEmpty()) {
+            results.addAll(importBatch(batch, results.size()));
+        }
+
+        return results;
+
+    }
+
+    private List<TaskImportResultDTO> importBatch(final List<TaskCreateDTO> batch, final int firstRow) {
+        // one IN query for the assignees of the batch and one for each of the status and label cache misses
+        var assignees = taskMapper.prefetch(batch);
+
+        var results = new ArrayList<TaskImportResultDTO>(batch.size());
+        var accepted = new LinkedHashMap<TaskImportResultDTO, TaskCreateDTO>();
+        for (var i = 0; i < batch.size(); i++) {
+            var dto = batch.get(i);
+            var result = new TaskImportResultDTO(firstRow + i, null, validate(dto, assignees));
+            results.add(result);
+            if (result.getError() == null) {
+                accepted.put(result, dto);
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // mapped in the transaction, so the assignees prefetched by the mapper stay in its context
+                var tasks = taskMapper.map(List.copyOf(accepted.values()));
+                var acceptedResults = List.copyOf(accepted.keySet());
+                tasks.forEach(entityManager::persist);
+                entityManager.flush();
+                for (var i = 0; i < tasks.size(); i++) {
+                    acceptedResults.get(i).setId(tasks.get(i).getId());
+                    eventPublisher.publishEvent(TaskChangeEvent.created(taskMapper.map(tasks.get(i))));
+                }
+                entityManager.clear();
+            });
+        } catch (PersistenceException | DataAccessException e) {
+            var cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            accepted.keySet().forEach(result -> {
+                result.setId(null);
+                result.setError("Batch can`t be saved: " + cause);
+            });
+        }
+
+        return results;
+
+    }
+
+    private String validate(final TaskCreateDTO dto, final Set<Long> assignees) {
+        var violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (referenceDataCache.findTaskStatusBySlug(dto.getStatus()) == null) {
+            return "TaskStatus with slug " + dto.getStatus() + " not found";
+        }
+        if (dto.getAssigneeId() != null && !assignees.contains(dto.getAssigneeId())) {
+            return String.format("User with id %s not found", dto.getAssigneeId());
+        }
+        return null;
+    }
+
+}
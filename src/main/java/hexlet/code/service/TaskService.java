@@ -1,30 +1,72 @@
 package hexlet.code.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.component.RetryOnConflict;
+import hexlet.code.component.TaskRankRebalancer;
+import hexlet.code.config.CacheConfig;
+import hexlet.code.config.MetricsConfig;
 import hexlet.code.dto.task.TaskCreateDTO;
+import hexlet.code.dto.task.TaskCursor;
 import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.dto.task.TaskExportFormat;
 import hexlet.code.dto.task.TaskFilterDTO;
+import hexlet.code.dto.task.TaskMoveDTO;
 import hexlet.code.dto.task.TaskUpdateDTO;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.event.TaskChangeEvent;
+import hexlet.code.exception.PreconditionFailedException;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.TaskMapper;
-import hexlet.code.model.Label;
-import hexlet.code.repository.LabelRepository;
+import hexlet.code.model.Task;
 import hexlet.code.repository.TaskRepository;
-import hexlet.code.repository.TaskStatusRepository;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.search.TaskSearchIndex;
 import hexlet.code.specification.TaskSpecification;
+import hexlet.code.util.TaskExportWriter;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Optional;
+
+import static hexlet.code.component.TaskRankRebalancer.MIN_GAP;
+import static hexlet.code.component.TaskRankRebalancer.RANK_GAP;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @AllArgsConstructor
 public class TaskService {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    // the task list and its total count consider only this many best search matches,
+    // exports and bulk updates see all of them
+    private static final int MAX_SEARCH_RESULTS = 1000;
+
+    // search matches are passed to the database in chunks of this size, a statement takes a limited number of
+    // parameters
+    private static final int SEARCH_ID_CHUNK_SIZE = 10_000;
+
     @Autowired
     private final TaskRepository taskRepository;
 
@@ -35,20 +77,107 @@ public class TaskService {
     private final UserRepository userRepository;
 
     @Autowired
-    private final TaskStatusRepository taskStatusRepository;
+    private TaskSpecification taskSpecification;
 
     @Autowired
-    private final LabelRepository labelRepository;
+    private ObjectMapper objectMapper;
 
     @Autowired
-    private TaskSpecification taskSpecification;
+    private TaskSearchIndex taskSearchIndex;
 
-    @Transactional
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskRankRebalancer taskRankRebalancer;
+
+    @Transactional(readOnly = true)
     public List<TaskDTO> getAllTasks(final TaskFilterDTO filterDTO) {
+        var cursor = filterDTO.getCursor() == null ? null : TaskCursor.parse(filterDTO.getCursor());
+        var filter = taskSpecification.build(filterDTO)
+                .and(taskSpecification.withCursor(cursor, taskSpecification.isAscending(filterDTO)));
+        var sort = taskSpecification.buildSort(filterDTO);
+        var offset = cursor == null ? getPageStart(filterDTO) : 0;
+        var size = getPageSize(filterDTO);
+
+        if (!hasQuery(filterDTO)) {
+            return taskRepository.findPageProjected(filter, sort, offset, size);
+        }
+
+        var rankedIds = taskSearchIndex.search(filterDTO.getQ(), MAX_SEARCH_RESULTS);
+        if (filterDTO.getSort() != null || cursor != null) {
+            return taskRepository.findPageProjected(filter.and(taskSpecification.withIds(rankedIds)), sort,
+                    offset, size);
+        }
+
+        return findPageByRelevance(filter, rankedIds, offset, size);
+
+    }
+
+    /**
+     * Number of tasks in the list of {@link #getAllTasks}: with a full-text query, only its
+     * best {@value #MAX_SEARCH_RESULTS} matches are counted, as only those are listed.
+     */
+    @Cacheable(cacheNames = CacheConfig.TASK_COUNTS, key = "#filterDTO")
+    @Transactional(readOnly = true)
+    public long countTasks(final TaskFilterDTO filterDTO) {
         var filter = taskSpecification.build(filterDTO);
-        var tasks = taskRepository.findAll(filter);
+        if (hasQuery(filterDTO)) {
+            filter = filter.and(taskSpecification.withIds(
+                    taskSearchIndex.search(filterDTO.getQ(), MAX_SEARCH_RESULTS)));
+        }
+
+        return taskRepository.count(filter);
+
+    }
 
-        return tasks.stream().map(taskMapper::map).toList();
+    /**
+     * Writes every task matching the filter to {@code out}, chunk by chunk, ordered by id.
+     * Paging parameters of the filter are ignored.
+     */
+    @Transactional(readOnly = true)
+    public void exportTasks(final TaskFilterDTO filterDTO,
+                            final TaskExportFormat format,
+                            final OutputStream out) throws IOException {
+        var writer = new TaskExportWriter(format, objectMapper, out);
+        writer.writeHeader();
+
+        try {
+            // the filters cover ascending id ranges, so the tasks stay ordered by id
+            for (var filter : buildFilters(filterDTO)) {
+                taskRepository.forEachChunkProjected(filter, Sort.by("id"),
+                        EXPORT_CHUNK_SIZE, chunk -> {
+                            try {
+                                for (var task : chunk) {
+                                    writer.write(task);
+                                }
+                                writer.flush();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+
+    }
+
+    /**
+     * Ids of all tasks matching the filter, paging and sorting fields are ignored.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findTaskIds(final TaskFilterDTO filterDTO) {
+        return buildFilters(filterDTO).stream()
+                .flatMap(filter -> taskRepository.findIds(filter).stream())
+                .toList();
+
+    }
+
+    public Optional<Long> findTaskVersion(final long id) {
+        return taskRepository.findVersionById(id);
 
     }
 
@@ -61,33 +190,35 @@ public class TaskService {
 
     }
 
+    // the mapper resolves the assignee, in the same persistence context as the save
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASK_COUNTS, allEntries = true)
     public TaskDTO createTask(final TaskCreateDTO taskCreateDTO) {
         var task = taskMapper.map(taskCreateDTO);
-        var assigneeId = taskCreateDTO.getAssigneeId();
-
-        if (assigneeId != null) {
-            var user = userRepository.findById(assigneeId).orElse(null);
-            task.setAssignee(user);
-
-        }
-
-        var slug = taskCreateDTO.getStatus();
-        var taskStatus = taskStatusRepository.findBySlug(slug).orElse(null);
-        task.setTaskStatus(taskStatus);
-
-        var labels = task.getLabels();
-        labels.forEach(label -> label.addTask(task));
 
         taskRepository.save(task);
 
-        return taskMapper.map(task);
+        var taskDTO = taskMapper.map(task);
+        eventPublisher.publishEvent(TaskChangeEvent.created(taskDTO));
+        return taskDTO;
 
     }
 
+    /**
+     * Updates the task if its version is {@code expectedVersion}, or regardless of the version if that is null.
+     * A conflicting concurrent update is retried, and then fails the version check if one was asked for.
+     */
+    @RetryOnConflict
     @Transactional
-    public TaskDTO updateTask(final TaskUpdateDTO taskBody, final long id) {
+    @CacheEvict(cacheNames = CacheConfig.TASK_COUNTS, allEntries = true)
+    public TaskDTO updateTask(final TaskUpdateDTO taskBody, final long id, final Long expectedVersion) {
         var task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format("Task with id %s not found", id)));
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException(
+                    String.format("Task with id %s has version %s, not %s", id, task.getVersion(), expectedVersion));
+        }
+        var previous = taskMapper.map(task);
         taskMapper.update(taskBody, task);
 
         var assigneeId = taskBody.getAssigneeId();
@@ -97,26 +228,202 @@ public class TaskService {
 
         }
 
-        var slug = taskBody.getStatus();
-        if (slug != null) {
-            var taskStatus = taskStatusRepository.findBySlug(slug.get()).orElse(null);
-            task.setTaskStatus(taskStatus);
+        // flushed, so that the version is incremented before the task is mapped
+        taskRepository.saveAndFlush(task);
+
+        var taskDTO = taskMapper.map(task);
+        eventPublisher.publishEvent(TaskChangeEvent.updated(taskDTO, previous));
+        return taskDTO;
+
+    }
+
+    /**
+     * Moves the task next to a neighbour, possibly into another status column, by giving it a rank between
+     * the ranks of the tasks around its new place. Only the moved task is written, unless the gap there
+     * is used up and the column has to be rebalanced first, see {@link TaskRankRebalancer}.
+     */
+    @RetryOnConflict
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASK_COUNTS, allEntries = true)
+    public TaskDTO moveTask(final long id, final TaskMoveDTO moveDTO) {
+        var task = taskRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(String.format("Task with id %s not found", id)));
+        var previous = taskMapper.map(task);
+        var taskStatus = moveDTO.getStatus() == null
+                ? task.getTaskStatus()
+                : taskMapper.slugToTaskStatus(moveDTO.getStatus());
+        var statusId = taskStatus.getId();
+
+        // the neighbour ranks are read only once no rebalance of the column is running
+        taskRankRebalancer.lockColumn(statusId);
+        var bounds = findRankBounds(id, statusId, moveDTO);
+        if (bounds == null || !bounds.hasGap()) {
+            taskRankRebalancer.rebalance(statusId, id);
+            bounds = findRankBounds(id, statusId, moveDTO);
         }
 
-        Set<Long> labelsId = task.getLabels().stream()
-                .map(Label::getId)
-                .collect(Collectors.toSet());
-        Set<Label> labels = labelRepository.findByIdIn(labelsId);
-        labels.forEach(a -> a.addTask(task));
+        var rank = bounds.middle();
+        if (bounds.isNarrowAround(rank)) {
+            taskRankRebalancer.schedule(statusId);
+        }
 
+        task.setTaskStatus(taskStatus);
+        task.setIndex(rank);
         taskRepository.save(task);
 
-        return taskMapper.map(task);
+        var taskDTO = taskMapper.map(task);
+        eventPublisher.publishEvent(TaskChangeEvent.updated(taskDTO, previous));
+        return taskDTO;
 
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASK_COUNTS, allEntries = true)
     public void deleteTask(final long id) {
-        taskRepository.deleteById(id);
+        taskRepository.findById(id).ifPresent(task -> {
+            var taskDTO = taskMapper.map(task);
+            taskRepository.delete(task);
+            eventPublisher.publishEvent(TaskChangeEvent.deleted(taskDTO));
+        });
+
+    }
+
+    /**
+     * The ranks right above and below the new place of the task. Returns null if the neighbour has no rank yet.
+     */
+    private RankBounds findRankBounds(final long id, final long statusId, final TaskMoveDTO moveDTO) {
+        var neighbourId = moveDTO.getAfterId() != null ? moveDTO.getAfterId() : moveDTO.getBeforeId();
+        if (neighbourId == null) {
+            return new RankBounds(taskRepository.findMaxIndex(statusId, id).orElse(null), null);
+        }
+        if (neighbourId == id) {
+            throw new BadRequestException("A task can`t be moved next to itself");
+        }
+
+        var neighbour = taskRepository.findRankByIdAndTaskStatusId(neighbourId, statusId)
+                .orElseThrow(() -> new BadRequestException(
+                        String.format("Task with id %s is not in the target column", neighbourId)));
+        if (neighbour.getIndex() == null) {
+            return null;
+        }
+
+        int index = neighbour.getIndex();
+        return moveDTO.getAfterId() != null
+                ? new RankBounds(index, taskRepository.findNextIndex(statusId, index, id).orElse(null))
+                : new RankBounds(taskRepository.findPreviousIndex(statusId, index, id).orElse(null), index);
+
+    }
+
+    private boolean hasQuery(final TaskFilterDTO filterDTO) {
+        return StringUtils.hasText(filterDTO.getQ());
+
+    }
+
+    /**
+     * Filters that together select every task matching {@code filterDTO}. A full-text query is not limited
+     * to its best matches: the matching ids are sorted and split into chunks, one filter per chunk.
+     */
+    private List<Specification<Task>> buildFilters(final TaskFilterDTO filterDTO) {
+        var filter = taskSpecification.build(filterDTO);
+        if (!hasQuery(filterDTO)) {
+            return List.of(filter);
+        }
+
+        var ids = taskSearchIndex.search(filterDTO.getQ(), Integer.MAX_VALUE).stream()
+                .sorted()
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        var filters = new ArrayList<Specification<Task>>();
+        for (var start = 0; start < ids.size(); start += SEARCH_ID_CHUNK_SIZE) {
+            var chunk = ids.subList(start, Math.min(start + SEARCH_ID_CHUNK_SIZE, ids.size()));
+            filters.add(filter.and(taskSpecification.withIds(chunk)));
+        }
+        return filters;
+
+    }
+
+    /**
+     * Applies the other filters to the search results, then loads the requested page in the order of relevance.
+     * Only the ranked ids are read back, never all ids matching the other filters.
+     */
+    private List<TaskDTO> findPageByRelevance(final Specification<Task> filter, final List<Long> rankedIds,
+                                              final int offset, final int size) {
+        var matchingIds = new HashSet<>(taskRepository.findIds(filter.and(taskSpecification.withIds(rankedIds))));
+        var pageIds = rankedIds.stream()
+                .filter(matchingIds::contains)
+                .skip(offset)
+                .limit(size)
+                .toList();
+
+        var positions = new HashMap<Long, Integer>();
+        for (var i = 0; i < pageIds.size(); i++) {
+            positions.put(pageIds.get(i), i);
+        }
+
+        return taskRepository.findPageProjected(taskSpecification.withIds(pageIds), Sort.unsorted(), 0, size)
+                .stream()
+                .sorted(Comparator.comparing(task -> positions.get(task.getId())))
+                .toList();
+
+    }
+
+    private int getPageStart(final TaskFilterDTO filterDTO) {
+        var start = filterDTO.getStart();
+        if (start != null && start < 0) {
+            throw new BadRequestException("_start must not be negative");
+        }
+
+        return start == null ? 0 : start;
+
+    }
+
+    private int getPageSize(final TaskFilterDTO filterDTO) {
+        var end = filterDTO.getEnd();
+        if (end == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+
+        var size = end - getPageStart(filterDTO);
+        if (size <= 0) {
+            throw new BadRequestException("_end must be greater than _start");
+        }
+
+        return Math.min(size, MAX_PAGE_SIZE);
+
+    }
+
+    /**
+     * Ranks of the tasks right above and below a place in a column, null at the start and end of the column.
+     * Computed in long, as the middle has to fit into the int column.
+     */
+    private record RankBounds(Integer lower, Integer upper) {
+
+        boolean hasGap() {
+            if (lower != null && upper != null) {
+                return (long) upper - lower > 1;
+            }
+            if (lower != null) {
+                return (long) lower + RANK_GAP <= Integer.MAX_VALUE;
+            }
+            return upper == null || (long) upper - RANK_GAP >= Integer.MIN_VALUE;
+        }
+
+        int middle() {
+            if (lower != null && upper != null) {
+                return (int) (((long) lower + upper) / 2);
+            }
+            if (lower != null) {
+                return lower + RANK_GAP;
+            }
+            return upper == null ? RANK_GAP : upper - RANK_GAP;
+        }
+
+        boolean isNarrowAround(int rank) {
+            return lower != null && (long) rank - lower < MIN_GAP || upper != null && (long) upper - rank < MIN_GAP;
+        }
 
     }
 
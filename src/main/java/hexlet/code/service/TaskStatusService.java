@@ -1,21 +1,30 @@
 package hexlet.code.service;
 
+import hexlet.code.component.RetryOnConflict;
+import hexlet.code.config.CacheConfig;
+import hexlet.code.config.MetricsConfig;
 import hexlet.code.dto.taskStatus.TaskStatusCreateDTO;
 import hexlet.code.dto.taskStatus.TaskStatusDTO;
 import hexlet.code.dto.taskStatus.TaskStatusUpdateDTO;
+import hexlet.code.exception.PreconditionFailedException;
 import hexlet.code.exception.ResourceHasRelatedEntitiesException;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.TaskStatusMapper;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.stats.TaskCounters;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @AllArgsConstructor
 public class TaskStatusService {
 
@@ -28,6 +37,9 @@ public class TaskStatusService {
     @Autowired
     private final TaskStatusMapper taskStatusMapper;
 
+    @Autowired
+    private final TaskCounters taskCounters;
+
     public List<TaskStatusDTO> getAllTaskStatuses() {
         var taskStatuses = taskStatusRepository.findAll();
 
@@ -36,6 +48,11 @@ public class TaskStatusService {
 
     }
 
+    public Optional<Long> findTaskStatusVersion(final long id) {
+        return taskStatusRepository.findVersionById(id);
+
+    }
+
     public TaskStatusDTO getTaskStatus(final long id) {
         var taskStatus = taskStatusRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format("TaskStatus with id %s not found", id)));
@@ -44,18 +61,27 @@ public class TaskStatusService {
 
     }
 
+    @CacheEvict(cacheNames = CacheConfig.TASK_STATUSES_BY_SLUG, allEntries = true)
     public TaskStatusDTO createTaskStatus(final TaskStatusCreateDTO taskStatusBody) {
         var taskStatus = taskStatusMapper.map(taskStatusBody);
-        taskStatusRepository.save(taskStatus);
+        // the saved copy carries the incremented version
+        taskStatus = taskStatusRepository.save(taskStatus);
 
         return taskStatusMapper.map(taskStatus);
 
     }
 
+    @RetryOnConflict
+    @CacheEvict(cacheNames = CacheConfig.TASK_STATUSES_BY_SLUG, allEntries = true)
     public TaskStatusDTO updateTaskStatus(final TaskStatusUpdateDTO taskStatusBody,
-                                          final long id) {
+                                          final long id,
+                                          final Long expectedVersion) {
         var taskStatus = taskStatusRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format("TaskStatus with id %s not found", id)));
+        if (expectedVersion != null && !expectedVersion.equals(taskStatus.getVersion())) {
+            throw new PreconditionFailedException(String.format("TaskStatus with id %s has version %s, not %s",
+                    id, taskStatus.getVersion(), expectedVersion));
+        }
         taskStatusMapper.update(taskStatusBody, taskStatus);
         taskStatusRepository.save(taskStatus);
 
@@ -63,13 +89,22 @@ public class TaskStatusService {
 
     }
 
+    @CacheEvict(cacheNames = CacheConfig.TASK_STATUSES_BY_SLUG, allEntries = true)
     public void deleteTaskStatus(final long id) {
+        if (taskCounters.countByStatus(id) > 0 && taskRepository.existsByTaskStatusId(id)) {
+            throw hasTasks(id);
+        }
+
         try {
             taskStatusRepository.deleteById(id);
         } catch (DataIntegrityViolationException e) {
-            throw new ResourceHasRelatedEntitiesException(
-                    "{\"error\":\"Task status with id: " + id + " can`t be deleted, it has tasks\"}");
+            throw hasTasks(id);
         }
     }
 
+    private ResourceHasRelatedEntitiesException hasTasks(final long id) {
+        return new ResourceHasRelatedEntitiesException(
+                "{\"error\":\"Task status with id: " + id + " can`t be deleted, it has tasks\"}");
+    }
+
 }
@@ -1,21 +1,28 @@
 package hexlet.code.service;
 
+import hexlet.code.component.RetryOnConflict;
+import hexlet.code.config.MetricsConfig;
 import hexlet.code.dto.user.UserCreateDTO;
 import hexlet.code.dto.user.UserDTO;
 import hexlet.code.dto.user.UserUpdateDTO;
+import hexlet.code.exception.PreconditionFailedException;
 import hexlet.code.exception.ResourceHasRelatedEntitiesException;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.UserMapper;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.stats.TaskCounters;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @AllArgsConstructor
 public class UserService {
 
@@ -24,6 +31,9 @@ public class UserService {
     @Autowired
     private final UserMapper userMapper;
 
+    @Autowired
+    private final TaskCounters taskCounters;
+
     @Autowired
     private TaskRepository taskRepository;
 
@@ -34,6 +44,11 @@ public class UserService {
 
     }
 
+    public Optional<Long> findUserVersion(final long id) {
+        return userRepository.findVersionById(id);
+
+    }
+
     public UserDTO getUserById(final long id) {
         var user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format("User with id %s not found", id)));
@@ -50,24 +65,38 @@ public class UserService {
 
     }
 
-    public UserDTO updateUser(final UserUpdateDTO userUpdateDTO, final long id) {
+    @RetryOnConflict
+    public UserDTO updateUser(final UserUpdateDTO userUpdateDTO, final long id, final Long expectedVersion) {
         var user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format("User with id %s not found", id)));
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new PreconditionFailedException(
+                    String.format("User with id %s has version %s, not %s", id, user.getVersion(), expectedVersion));
+        }
         userMapper.update(userUpdateDTO, user);
-        userRepository.save(user);
+        // the saved copy carries the incremented version
+        user = userRepository.save(user);
 
         return userMapper.map(user);
 
     }
 
     public void deleteUser(final long id) {
+        if (taskCounters.countByAssignee(id) > 0 && taskRepository.existsByAssigneeId(id)) {
+            throw hasTasks(id);
+        }
+
         try {
             userRepository.deleteById(id);
         } catch (DataIntegrityViolationException e) {
-            throw new ResourceHasRelatedEntitiesException(
-                    "{\"error\":\"User with id: " + id + " can`t be deleted, it has tasks\"}");
+            throw hasTasks(id);
         }
 
     }
 
+    private ResourceHasRelatedEntitiesException hasTasks(final long id) {
+        return new ResourceHasRelatedEntitiesException(
+                "{\"error\":\"User with id: " + id + " can`t be deleted, it has tasks\"}");
+    }
+
 }
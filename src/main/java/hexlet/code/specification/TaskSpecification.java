@@ -1,14 +1,37 @@
 package hexlet.code.specification;
 
+import hexlet.code.dto.task.TaskCursor;
+import hexlet.code.dto.task.TaskDTO;
 import hexlet.code.dto.task.TaskFilterDTO;
+import hexlet.code.exception.BadRequestException;
 import hexlet.code.model.Task;
 import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
 @Component
 public class TaskSpecification {
 
+    private static final String DEFAULT_SORT_PROPERTY = "id";
+
+    // names used by the API (TaskDTO fields) mapped to the Task entity paths
+    private static final Map<String, String> SORT_PROPERTIES = Map.of(
+            "id", "id",
+            "title", "name",
+            "index", "index",
+            "status", "taskStatus.slug",
+            "assignee_id", "assignee.id",
+            "createdAt", "createdAt"
+    );
+
     public Specification<Task> build(final TaskFilterDTO filterDTO) {
         return withAssignee(filterDTO.getAssigneeId())
                 .and(withTitleCont(filterDTO.getTitleCont()))
@@ -17,6 +40,78 @@ public class TaskSpecification {
 
     }
 
+    /**
+     * The filters of {@link #build} evaluated in memory, for the task change stream.
+     * {@code q} matches when every word of it occurs in the title or the content.
+     */
+    public Predicate<TaskDTO> matcher(final TaskFilterDTO filterDTO) {
+        var titleCont = filterDTO.getTitleCont() == null ? null : filterDTO.getTitleCont().toLowerCase();
+        var terms = filterDTO.getQ() == null
+                ? List.<String>of()
+                : Arrays.stream(filterDTO.getQ().toLowerCase().split("\\s+")).filter(term -> !term.isEmpty()).toList();
+
+        return task -> (titleCont == null || containsIgnoreCase(task.getTitle(), titleCont))
+                && (filterDTO.getAssigneeId() == null || filterDTO.getAssigneeId().equals(task.getAssigneeId()))
+                && (filterDTO.getStatus() == null || filterDTO.getStatus().equals(task.getStatus()))
+                && (filterDTO.getLabelId() == null || task.getTaskLabelIds().contains(filterDTO.getLabelId()))
+                && terms.stream().allMatch(term ->
+                        containsIgnoreCase(task.getTitle(), term) || containsIgnoreCase(task.getContent(), term));
+    }
+
+    /**
+     * Builds the order of the task list from the {@code _sort/_order} parameters.
+     * The id is always appended as a tie-breaker, so that pages are stable.
+     * In cursor mode the order is fixed to (createdAt, id), the direction is still taken from {@code _order}.
+     */
+    public Sort buildSort(final TaskFilterDTO filterDTO) {
+        var direction = isAscending(filterDTO) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        if (filterDTO.getCursor() != null) {
+            return Sort.by(direction, "createdAt", DEFAULT_SORT_PROPERTY);
+        }
+
+        var sort = filterDTO.getSort();
+        var property = sort == null ? DEFAULT_SORT_PROPERTY : SORT_PROPERTIES.get(sort);
+        if (property == null) {
+            throw new BadRequestException("Unsupported sort field: " + sort);
+        }
+
+        return property.equals(DEFAULT_SORT_PROPERTY)
+                ? Sort.by(direction, DEFAULT_SORT_PROPERTY)
+                : Sort.by(direction, property).and(Sort.by(direction, DEFAULT_SORT_PROPERTY));
+    }
+
+    public boolean isAscending(final TaskFilterDTO filterDTO) {
+        return !"DESC".equalsIgnoreCase(filterDTO.getOrder());
+    }
+
+    public Specification<Task> withCursor(final TaskCursor cursor, final boolean ascending) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return criteriaBuilder.conjunction();
+            }
+            var createdAt = root.<LocalDate>get("createdAt");
+            var id = root.<Long>get("id");
+            return ascending
+                    ? criteriaBuilder.or(
+                            criteriaBuilder.greaterThan(createdAt, cursor.getCreatedAt()),
+                            criteriaBuilder.and(
+                                    criteriaBuilder.equal(createdAt, cursor.getCreatedAt()),
+                                    criteriaBuilder.greaterThan(id, cursor.getId())))
+                    : criteriaBuilder.or(
+                            criteriaBuilder.lessThan(createdAt, cursor.getCreatedAt()),
+                            criteriaBuilder.and(
+                                    criteriaBuilder.equal(createdAt, cursor.getCreatedAt()),
+                                    criteriaBuilder.lessThan(id, cursor.getId())));
+        };
+    }
+
+    public Specification<Task> withIds(final Collection<Long> ids) {
+        return (root, query, criteriaBuilder) ->
+                ids.isEmpty()
+                        ? criteriaBuilder.disjunction()
+                        : root.get("id").in(ids);
+    }
+
     public Specification<Task> withAssignee(final Long assigneeId) {
         return (root, query, criteriaBuilder) ->
                 assigneeId == null
@@ -46,4 +141,8 @@ public class TaskSpecification {
                         : criteriaBuilder.equal(root.join("labels", JoinType.INNER).get("id"), labelId);
     }
 
+    private static boolean containsIgnoreCase(final String text, final String lowerCaseTerm) {
+        return text != null && text.toLowerCase().contains(lowerCaseTerm);
+    }
+
 }
@@ -0,0 +1,191 @@
+package hexlet.code.stats;
+
+import hexlet.code.component.ReferenceDataCache;
+import hexlet.code.dto.stats.TaskCountsDTO;
+import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.event.TaskChangeEvent;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Task counts per status, assignee, label, and assignee and status, kept in memory.
+ * They are read from the database once at startup and from then on moved by the {@link TaskChangeEvent}s
+ * after each commit, so reading them never touches the tasks table.
+ * Like the change stamps they only see the writes made through the task services of this instance:
+ * writes straight through {@link TaskRepository} or from another instance are not counted, so the services
+ * confirm a positive count with the database before they refuse a delete.
+ */
+@Component
+public class TaskCounters {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    private final Map<Long, Long> byStatus = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> byAssignee = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> byLabel = new ConcurrentHashMap<>();
+
+    private final Map<AssigneeStatus, Long> byAssigneeAndStatus = new ConcurrentHashMap<>();
+
+    // shared by transactions changing tasks from before their commit until their events are counted,
+    // exclusive for a rebuild: it reads the database between commits, so no change is lost or counted twice
+    private final ReadWriteLock commits = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        commits.writeLock().lock();
+        try {
+            load(byStatus, taskRepository.countByStatus(), row -> (Long) row[0]);
+            load(byAssignee, taskRepository.countByAssignee(), row -> (Long) row[0]);
+            load(byLabel, taskRepository.countByLabel(), row -> (Long) row[0]);
+            load(byAssigneeAndStatus, taskRepository.countByAssigneeAndStatus(),
+                    row -> new AssigneeStatus((Long) row[0], (Long) row[1]));
+        } finally {
+            commits.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Holds the commit of a transaction that changes tasks back while a rebuild runs, and keeps a rebuild
+     * waiting until the events of the transaction are counted. Once per transaction, however many events.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeTaskChangeCommit(final TaskChangeEvent event) {
+        if (TransactionSynchronizationManager.hasResource(commits)) {
+            return;
+        }
+
+        commits.readLock().lock();
+        TransactionSynchronizationManager.bindResource(commits, Boolean.TRUE);
+        // registered after the event listeners of the transaction, so it completes after them
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(commits);
+                commits.readLock().unlock();
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(final TaskChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED -> add(event.getTask(), 1);
+            case UPDATED -> {
+                add(event.getPrevious(), -1);
+                add(event.getTask(), 1);
+            }
+            case DELETED -> add(event.getTask(), -1);
+            default -> throw new IllegalArgumentException("Unknown change: " + event.getType());
+        }
+    }
+
+    public long countByStatus(long statusId) {
+        return byStatus.getOrDefault(statusId, 0L);
+    }
+
+    public long countByAssignee(long assigneeId) {
+        return byAssignee.getOrDefault(assigneeId, 0L);
+    }
+
+    public long countByLabel(long labelId) {
+        return byLabel.getOrDefault(labelId, 0L);
+    }
+
+    /**
+     * A snapshot of all counts. Reads the task statuses for their slugs, but not the tasks.
+     */
+    public TaskCountsDTO getCounts() {
+        var slugs = taskStatusRepository.findAll().stream()
+                .collect(Collectors.toMap(TaskStatus::getId, TaskStatus::getSlug));
+
+        var statusCounts = new TreeMap<String, Long>();
+        byStatus.forEach((statusId, count) -> {
+            if (slugs.containsKey(statusId)) {
+                statusCounts.put(slugs.get(statusId), count);
+            }
+        });
+
+        var assigneeStatusCounts = new TreeMap<Long, Map<String, Long>>();
+        byAssigneeAndStatus.forEach((key, count) -> {
+            if (slugs.containsKey(key.statusId())) {
+                assigneeStatusCounts.computeIfAbsent(key.assigneeId(), id -> new TreeMap<>())
+                        .put(slugs.get(key.statusId()), count);
+            }
+        });
+
+        var counts = new TaskCountsDTO();
+        counts.setTotal(statusCounts.values().stream().mapToLong(Long::longValue).sum());
+        counts.setByStatus(statusCounts);
+        counts.setByAssignee(new TreeMap<>(byAssignee));
+        counts.setByLabel(new TreeMap<>(byLabel));
+        counts.setByAssigneeAndStatus(assigneeStatusCounts);
+        return counts;
+    }
+
+    private void add(final TaskDTO task, final long delta) {
+        var status = task.getStatus() == null ? null : referenceDataCache.findTaskStatusBySlug(task.getStatus());
+        var statusId = status == null ? null : status.getId();
+        var assigneeId = task.getAssigneeId();
+
+        if (statusId != null) {
+            add(byStatus, statusId, delta);
+        }
+        if (assigneeId != null) {
+            add(byAssignee, assigneeId, delta);
+            if (statusId != null) {
+                add(byAssigneeAndStatus, new AssigneeStatus(assigneeId, statusId), delta);
+            }
+        }
+        task.getTaskLabelIds().forEach(labelId -> add(byLabel, labelId, delta));
+    }
+
+    // zero counts are dropped; so are negative ones, left by tasks that were created past the services
+    private static <K> void add(final Map<K, Long> counts, final K key, final long delta) {
+        counts.compute(key, (k, count) -> {
+            var value = (count == null ? 0 : count) + delta;
+            return value > 0 ? value : null;
+        });
+    }
+
+    private static <K> void load(final Map<K, Long> counts, final List<Object[]> rows,
+                                 final Function<Object[], K> key) {
+        var loaded = new HashMap<K, Long>();
+        rows.forEach(row -> loaded.put(key.apply(row), (Long) row[row.length - 1]));
+        counts.clear();
+        counts.putAll(loaded);
+    }
+
+    private record AssigneeStatus(long assigneeId, long statusId) {
+    }
+
+}
@@ -0,0 +1,71 @@
+package hexlet.code.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Decorates a {@link JwtDecoder} with a cache of already verified tokens, so that a token is parsed
+ * and its signature verified once, not on every request. Entries are keyed by the SHA-256 of the token
+ * and expire together with the token ({@code exp} claim); tokens without {@code exp} are not cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String key, Jwt jwt) -> timeToLive(jwt)))
+                .recordStats()
+                .build();
+    }
+
+    public Cache<String, Jwt> getCache() {
+        return cache;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        var key = hash(token);
+        var jwt = cache.getIfPresent(key);
+        if (jwt != null) {
+            return jwt;
+        }
+
+        jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            cache.put(key, jwt);
+        }
+
+        return jwt;
+    }
+
+    private static Duration timeToLive(Jwt jwt) {
+        var timeToLive = Duration.between(Instant.now(), jwt.getExpiresAt());
+        return timeToLive.isNegative() ? Duration.ZERO : timeToLive;
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
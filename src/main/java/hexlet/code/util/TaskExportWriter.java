@@ -0,0 +1,73 @@
+package hexlet.code.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.dto.task.TaskExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Writes tasks one row at a time, so the export never holds more than the current chunk.
+ * The target stream is flushed, not closed: it belongs to the servlet container.
+ */
+public class TaskExportWriter {
+
+    private static final String CSV_HEADER = "id,title,index,content,status,assignee_id,taskLabelIds,createdAt";
+
+    private final TaskExportFormat format;
+
+    private final ObjectWriter jsonWriter;
+
+    private final Writer writer;
+
+    public TaskExportWriter(TaskExportFormat format, ObjectMapper objectMapper, OutputStream out) {
+        this.format = format;
+        this.jsonWriter = objectMapper.writerFor(TaskDTO.class);
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public void writeHeader() throws IOException {
+        if (format == TaskExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public void write(TaskDTO task) throws IOException {
+        if (format == TaskExportFormat.CSV) {
+            writer.write(String.join(",",
+                    csv(task.getId()),
+                    csv(task.getTitle()),
+                    csv(task.getIndex()),
+                    csv(task.getContent()),
+                    csv(task.getStatus()),
+                    csv(task.getAssigneeId()),
+                    csv(task.getTaskLabelIds().stream().map(String::valueOf).collect(Collectors.joining(";"))),
+                    csv(task.getCreatedAt())));
+        } else {
+            writer.write(jsonWriter.writeValueAsString(task));
+        }
+        writer.write('\n');
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private static String csv(Object value) {
+        var text = Objects.toString(value, "");
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+}
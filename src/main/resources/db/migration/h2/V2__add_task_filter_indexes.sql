@@ -0,0 +1,11 @@
+-- TaskSpecification filters: status (joined by slug) with the default and cursor order
+create index tasks_task_status_id_created_at_idx on tasks (task_status_id, created_at, id);
+
+-- assignee alone or together with status
+create index tasks_assignee_id_task_status_id_idx on tasks (assignee_id, task_status_id);
+
+-- cursor paging of the unfiltered list
+create index tasks_created_at_id_idx on tasks (created_at, id);
+
+-- label filter, the primary key only covers lookups by task
+create index tasks_labels_labels_id_idx on tasks_labels (labels_id, tasks_id);
@@ -0,0 +1,2 @@
+-- ordered column reads of the board and the neighbour ranks looked up by moves
+create index tasks_task_status_id_index_idx on tasks (task_status_id, index, id);
@@ -0,0 +1,41 @@
+create table users (
+    id bigint generated by default as identity primary key,
+    first_name varchar(255),
+    last_name varchar(255),
+    email varchar(255) unique,
+    password_digest varchar(255) not null,
+    created_at date,
+    updated_at date
+);
+
+create table task_statuses (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null unique,
+    slug varchar(255) not null unique,
+    created_at date
+);
+
+create table labels (
+    id bigint generated by default as identity primary key,
+    name varchar(1000) not null unique,
+    created_at date
+);
+
+-- ids are allocated by Hibernate in blocks of Task.ID_ALLOCATION_SIZE
+create sequence tasks_seq start with 1 increment by 50;
+
+create table tasks (
+    id bigint primary key,
+    name varchar(255) not null,
+    index integer,
+    description text,
+    task_status_id bigint not null references task_statuses (id),
+    assignee_id bigint references users (id),
+    created_at date
+);
+
+create table tasks_labels (
+    tasks_id bigint not null references tasks (id),
+    labels_id bigint not null references labels (id),
+    primary key (tasks_id, labels_id)
+);
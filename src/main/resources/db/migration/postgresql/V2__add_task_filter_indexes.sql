@@ -0,0 +1,25 @@
+-- databases created by ddl-auto are baselined at V1, bring them to the V1 schema first
+
+-- the @Lob description used to be stored as a large object
+do $$ begin
+    if exists (select 1 from information_schema.columns
+            where table_name = 'tasks' and column_name = 'description' and data_type = 'oid') then
+        alter table tasks alter column description type text using convert_from(lo_get(description), 'UTF8');
+    end if;
+end $$;
+
+-- task ids used to come from an identity column, the sequence has to start past them
+create sequence if not exists tasks_seq start with 1 increment by 50;
+select setval('tasks_seq', max(id) + 50) from tasks having max(id) is not null;
+
+-- TaskSpecification filters: status (joined by slug) with the default and cursor order
+create index if not exists tasks_task_status_id_created_at_idx on tasks (task_status_id, created_at, id);
+
+-- assignee alone or together with status
+create index if not exists tasks_assignee_id_task_status_id_idx on tasks (assignee_id, task_status_id);
+
+-- cursor paging of the unfiltered list
+create index if not exists tasks_created_at_id_idx on tasks (created_at, id);
+
+-- label filter, the primary key only covers lookups by task
+create index if not exists tasks_labels_labels_id_idx on tasks_labels (labels_id, tasks_id);
@@ -0,0 +1,8 @@
+create extension if not exists pg_trgm;
+
+-- has to be the same expression as PostgresTaskSearchIndex.DOCUMENT, otherwise the index is not used
+create index if not exists tasks_search_idx on tasks
+    using gin (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')));
+
+-- partial words in search and the titleCont filter, lower(name) like '%...%'
+create index if not exists tasks_name_trgm_idx on tasks using gin (lower(name) gin_trgm_ops);
@@ -0,0 +1,5 @@
+-- @Version of the entities, used for optimistic locking and as ETag
+alter table users add column version bigint default 0 not null;
+alter table task_statuses add column version bigint default 0 not null;
+alter table labels add column version bigint default 0 not null;
+alter table tasks add column version bigint default 0 not null;
@@ -0,0 +1,13 @@
+-- responses of create requests, replayed for retries carrying the same Idempotency-Key
+create table idempotency_keys (
+    id bigint generated by default as identity primary key,
+    scope varchar(255) not null,
+    idempotency_key varchar(255) not null,
+    request_hash varchar(64) not null,
+    response text,
+    created_at timestamp with time zone not null,
+    version bigint default 0 not null,
+    unique (scope, idempotency_key)
+);
+
+create index idempotency_keys_created_at_idx on idempotency_keys (created_at);
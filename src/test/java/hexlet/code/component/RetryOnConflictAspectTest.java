@@ -0,0 +1,102 @@
+package hexlet.code.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.label.LabelUpdateDTO;
+import hexlet.code.mapper.LabelMapper;
+import hexlet.code.model.Label;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.service.LabelService;
+import hexlet.code.util.ModelGenerator;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RetryOnConflictAspectTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private ModelGenerator modelGenerator;
+
+    @Autowired
+    private LabelService labelService;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    // the conflict is raised while the update is applied, inside the transaction that the aspect retries
+    @SpyBean
+    private LabelMapper labelMapper;
+
+    private Label testLabel;
+
+    @BeforeEach
+    public void setUp() {
+        testLabel = labelRepository.save(Instancio.of(modelGenerator.getLabelModel()).create());
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        labelRepository.deleteById(testLabel.getId());
+    }
+
+    @Test
+    public void testRetriesConflictingUpdate() {
+        doThrow(new ObjectOptimisticLockingFailureException(Label.class, testLabel.getId()))
+                .doCallRealMethod()
+                .when(labelMapper).update(any(), any());
+
+        var labelBody = new LabelUpdateDTO();
+        labelBody.setName(JsonNullable.of("retried update"));
+        var label = labelService.updateLabel(testLabel.getId(), labelBody, null);
+
+        assertThat(label.getName()).isEqualTo("retried update");
+        verify(labelMapper, times(2)).update(any(), any());
+
+    }
+
+    @Test
+    public void testConflictAfterLastAttempt() throws Exception {
+        doThrow(new ObjectOptimisticLockingFailureException(Label.class, testLabel.getId()))
+                .when(labelMapper).update(any(), any());
+
+        var request = MockMvcRequestBuilders.put("/api/labels/" + testLabel.getId()).with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(Map.of("name", "never saved")));
+        mockMvc.perform(request)
+                .andExpect(status().isConflict());
+
+        verify(labelMapper, times(3)).update(any(), any());
+        assertThat(labelRepository.findById(testLabel.getId()).orElseThrow().getName())
+                .isEqualTo(testLabel.getName());
+
+    }
+
+}
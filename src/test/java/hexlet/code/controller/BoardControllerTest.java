@@ -0,0 +1,147 @@
+package hexlet.code.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.util.ModelGenerator;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BoardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private ModelGenerator modelGenerator;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    private String baseUrl = "/api/board";
+
+    private String slug = "to_review";
+
+    private List<Task> testTasks = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        var taskStatus = taskStatusRepository.findBySlug(slug)
+                .orElseThrow(() -> new RuntimeException("TaskStatus not found."));
+
+        // lower than any other task of the column, so that the first two tasks of the board are ours
+        for (var index : new Integer[] {Integer.MIN_VALUE + 2, null, Integer.MIN_VALUE + 1}) {
+            var task = Instancio.of(modelGenerator.getTaskModel()).create();
+            task.setIndex(index);
+            task.setTaskStatus(taskStatus);
+            task.setAssignee(null);
+            task.setLabels(new HashSet<>());
+            testTasks.add(taskRepository.save(task));
+        }
+
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        taskRepository.deleteAll(testTasks);
+    }
+
+    @Test
+    public void testGetBoard() throws Exception {
+        var board = getJson(baseUrl + "?limit=2");
+
+        var slugs = new ArrayList<String>();
+        board.get("columns").forEach(column -> slugs.add(column.get("slug").asText()));
+        assertThat(slugs).containsAll(taskStatusRepository.findAll().stream().map(TaskStatus::getSlug).toList());
+
+        var column = findColumn(board, slug);
+        assertThat(column.get("count").asLong()).isEqualTo(taskRepository.findAll().stream()
+                .filter(t -> t.getTaskStatus().getSlug().equals(slug))
+                .count());
+        assertThat(column.get("tasks")).hasSize(2);
+        assertThat(column.get("tasks").get(0).get("id").asLong()).isEqualTo(testTasks.get(2).getId());
+        assertThat(column.get("tasks").get(1).get("id").asLong()).isEqualTo(testTasks.get(0).getId());
+        assertThat(column.get("nextCursor").isNull()).isFalse();
+
+    }
+
+    @Test
+    public void testGetColumnPages() throws Exception {
+        var ids = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            var url = baseUrl + "/columns/" + slug + "?limit=1" + (cursor == null ? "" : "&cursor=" + cursor);
+            var column = getJson(url);
+            assertThat(column.get("tasks").size()).isLessThanOrEqualTo(1);
+            column.get("tasks").forEach(task -> ids.add(task.get("id").asLong()));
+            cursor = column.get("nextCursor").isNull() ? null : column.get("nextCursor").asText();
+        } while (cursor != null);
+
+        // tasks with an index come first, those without one last
+        assertThat(ids).containsSubsequence(testTasks.get(2).getId(), testTasks.get(0).getId(),
+                testTasks.get(1).getId());
+        assertThat(ids).doesNotHaveDuplicates();
+
+    }
+
+    @Test
+    public void testGetColumnNotFound() throws Exception {
+        var request = MockMvcRequestBuilders.get(baseUrl + "/columns/unknown").with(jwt());
+        mockMvc.perform(request)
+                .andExpect(status().isNotFound());
+
+    }
+
+    @Test
+    public void testGetColumnWithInvalidCursor() throws Exception {
+        var request = MockMvcRequestBuilders.get(baseUrl + "/columns/" + slug + "?cursor=wrong").with(jwt());
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        var body = mockMvc.perform(MockMvcRequestBuilders.get(url).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return om.readTree(body);
+    }
+
+    private JsonNode findColumn(JsonNode board, String columnSlug) {
+        for (var column : board.get("columns")) {
+            if (column.get("slug").asText().equals(columnSlug)) {
+                return column;
+            }
+        }
+        throw new AssertionError("Column " + columnSlug + " not found");
+    }
+
+}
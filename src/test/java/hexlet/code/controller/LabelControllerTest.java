@@ -20,12 +20,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.util.Map;
+
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -167,7 +170,7 @@ class LabelControllerTest {
         mockMvc.perform(request)
                 .andExpect(MockMvcResultMatchers.status().isOk());
 
-        var label = labelRepository.findById(testLabel.getId()).orElse(null);
+        var label = labelRepository.findWithTasksById(testLabel.getId()).orElse(null);
 
         assertNotNull(label);
         assertThat(label.getName()).isEqualTo(newLabel.getName());
@@ -211,4 +214,42 @@ class LabelControllerTest {
 
     }
 
+    @Test
+    @Order(9)
+    public void testUpdateLabelWithIfMatch() throws Exception {
+        var url = baseUrl + "/" + testLabel.getId();
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(url).with(token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        var request = MockMvcRequestBuilders.put(url)
+                .with(token)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("name", "first update")));
+        var newETag = mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        assertThat(newETag).isNotEqualTo(eTag);
+        var version = labelRepository.findById(testLabel.getId()).orElseThrow().getVersion();
+        assertThat(newETag).isEqualTo("\"" + version + "\"");
+
+        var staleRequest = MockMvcRequestBuilders.put(url)
+                .with(token)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("name", "second update")));
+        mockMvc.perform(staleRequest)
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        assertThat(labelRepository.findById(testLabel.getId()).orElseThrow().getName()).isEqualTo("first update");
+
+    }
+
 }
@@ -0,0 +1,144 @@
+package hexlet.code.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.task.TaskDTO;
+import hexlet.code.event.TaskChangeEvent;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.util.ModelGenerator;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private ModelGenerator modelGenerator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private String baseUrl = "/api/stats/counts";
+
+    private String slug = "to_be_fixed";
+
+    private String userEmail = "hexlet@example.com";
+
+    @Test
+    public void testCountsFollowTaskChanges() throws Exception {
+        var assigneeId = userRepository.findByEmail(userEmail).orElseThrow().getId();
+        var before = getCounts();
+
+        var data = Map.of("title", "counted", "status", slug, "assignee_id", assigneeId);
+        var request = MockMvcRequestBuilders.post("/api/tasks").with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(data));
+        var body = mockMvc.perform(request)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        var taskId = om.readTree(body).get("id").asLong();
+
+        var created = getCounts();
+
+        assertThat(created.get("total").asLong()).isEqualTo(before.get("total").asLong() + 1);
+        assertThat(created.at("/byStatus/" + slug).asLong()).isEqualTo(before.at("/byStatus/" + slug).asLong() + 1);
+        assertThat(created.at("/byAssigneeAndStatus/" + assigneeId + "/" + slug).asLong())
+                .isEqualTo(before.at("/byAssigneeAndStatus/" + assigneeId + "/" + slug).asLong() + 1);
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/tasks/" + taskId).with(jwt()))
+                .andExpect(status().isNoContent());
+
+        var deleted = getCounts();
+
+        assertThat(deleted.at("/byStatus/" + slug).asLong()).isEqualTo(before.at("/byStatus/" + slug).asLong());
+
+    }
+
+    @Test
+    public void testDeleteTaskStatusWithTasks() throws Exception {
+        var status = taskStatusRepository.findBySlug(slug).orElseThrow();
+        var data = Map.of("title", "blocking", "status", slug);
+        var request = MockMvcRequestBuilders.post("/api/tasks").with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(data));
+        var body = mockMvc.perform(request)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        var taskId = om.readTree(body).get("id").asLong();
+
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.delete("/api/task_statuses/" + status.getId()).with(jwt()))
+                    .andExpect(status().isInternalServerError());
+
+            assertThat(taskStatusRepository.findById(status.getId())).isPresent();
+        } finally {
+            mockMvc.perform(MockMvcRequestBuilders.delete("/api/tasks/" + taskId).with(jwt()));
+        }
+
+    }
+
+    @Test
+    public void testDeleteLabelWithStaleCount() throws Exception {
+        var label = labelRepository.save(Instancio.of(modelGenerator.getLabelModel()).create());
+        // counted, but never written, as a task removed past the services would be
+        var task = new TaskDTO();
+        task.setTaskLabelIds(Set.of(label.getId()));
+        eventPublisher.publishEvent(TaskChangeEvent.created(task));
+
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.delete("/api/labels/" + label.getId()).with(jwt()))
+                    .andExpect(status().isNoContent());
+
+            assertThat(labelRepository.findById(label.getId())).isEmpty();
+        } finally {
+            eventPublisher.publishEvent(TaskChangeEvent.deleted(task));
+        }
+
+    }
+
+    private JsonNode getCounts() throws Exception {
+        var body = mockMvc.perform(MockMvcRequestBuilders.get(baseUrl).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return om.readTree(body);
+    }
+
+}
@@ -1,6 +1,7 @@
 package hexlet.code.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.component.IdempotencyKeys;
 import hexlet.code.dto.task.TaskUpdateDTO;
 import hexlet.code.mapper.TaskMapper;
 import hexlet.code.model.Task;
@@ -18,11 +19,17 @@ import org.openapitools.jackson.nullable.JsonNullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
@@ -31,6 +38,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -148,6 +158,168 @@ class TaskControllerTest {
 
     }
 
+    @Test
+    public void testListTasksPage() throws Exception {
+        var request = MockMvcRequestBuilders.get(baseUrl + "?_start=0&_end=1&_sort=id&_order=DESC").with(jwt());
+        var result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Total-Count"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andReturn();
+        var body = result.getResponse().getContentAsString();
+
+        assertThatJson(body).isArray().hasSize(1);
+
+    }
+
+    @Test
+    public void testListTasksPageByCreatedAt() throws Exception {
+        var request = MockMvcRequestBuilders.get(baseUrl + "?_start=0&_end=1&_sort=createdAt&_order=DESC")
+                .with(jwt());
+        var cursor = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+
+        var nextRequest = MockMvcRequestBuilders.get(baseUrl + "?_end=1&_order=DESC&cursor=" + cursor).with(jwt());
+        mockMvc.perform(nextRequest)
+                .andExpect(status().isOk());
+
+    }
+
+    @Test
+    public void testListTasksNotModified() throws Exception {
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(baseUrl).with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(baseUrl).header(HttpHeaders.IF_NONE_MATCH, eTag).with(jwt()))
+                .andExpect(status().isNotModified());
+
+        testTask.setName("renamed");
+        taskRepository.save(testTask);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(baseUrl).header(HttpHeaders.IF_NONE_MATCH, eTag).with(jwt()))
+                .andExpect(status().isOk());
+
+    }
+
+    @Test
+    public void testGetTaskNotModified() throws Exception {
+        var url = baseUrl + "/" + testTask.getId();
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(url).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url).header(HttpHeaders.IF_NONE_MATCH, eTag).with(jwt()))
+                .andExpect(status().isNotModified());
+
+    }
+
+    @Test
+    public void testListTasksWithInvalidCursor() throws Exception {
+        var request = MockMvcRequestBuilders.get(baseUrl + "?cursor=wrong").with(jwt());
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+    }
+
+    @Test
+    public void testSearchTasks() throws Exception {
+        testTask.setName("Reconcile invoices");
+        taskRepository.save(testTask);
+
+        var inDescription = Instancio.of(modelGenerator.getTaskModel()).create();
+        inDescription.setName("Monthly review");
+        inDescription.setDescription("Every invoice has to be reconciled");
+        inDescription.setTaskStatus(testTask.getTaskStatus());
+        inDescription.setAssignee(null);
+        inDescription.setLabels(new HashSet<>());
+        taskRepository.save(inDescription);
+
+        var request = MockMvcRequestBuilders.get(baseUrl + "?q=invoice").with(jwt());
+        var body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThatJson(body).isArray().hasSize(2);
+        assertThatJson(body).inPath("[0].id").isEqualTo(testTask.getId());
+        assertThatJson(body).inPath("[1].id").isEqualTo(inDescription.getId());
+
+        taskRepository.deleteById(inDescription.getId());
+
+    }
+
+    @Test
+    public void testTaskStream() throws Exception {
+        var stream = mockMvc.perform(MockMvcRequestBuilders.get(baseUrl + "/stream?titleCont=streamed").with(jwt()))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+
+        var dto = new TaskUpdateDTO();
+        dto.setTitle(JsonNullable.of("streamed task"));
+        dto.setStatus(JsonNullable.of(testTask.getTaskStatus().getSlug()));
+        var request = MockMvcRequestBuilders.put(baseUrl + "/" + testTask.getId()).with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(dto));
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        // events are sent by a thread of the subscriber
+        for (var i = 0; i < 50 && !stream.getContentAsString().contains("streamed task"); i++) {
+            Thread.sleep(100);
+        }
+
+        assertThat(stream.getContentAsString()).contains("event:updated");
+        assertThat(stream.getContentAsString()).contains("\"id\":" + testTask.getId());
+
+    }
+
+    @Test
+    public void testTaskStreamResetsUnknownEventId() throws Exception {
+        // an id of an earlier run of the application, whose sequence the current one may have reached again
+        var stream = mockMvc.perform(MockMvcRequestBuilders.get(baseUrl + "/stream").with(jwt())
+                        .header("Last-Event-ID", "1-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+
+        for (var i = 0; i < 50 && !stream.getContentAsString().contains("event:reset"); i++) {
+            Thread.sleep(100);
+        }
+
+        assertThat(stream.getContentAsString()).contains("event:reset");
+
+    }
+
+    @Test
+    public void testExportTasks() throws Exception {
+        var request = MockMvcRequestBuilders.get(baseUrl + "/export?format=csv&titleCont=" + testTask.getName())
+                .with(jwt());
+        var result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body).startsWith("id,title,");
+        assertThat(body).contains(testTask.getId() + "," + testTask.getName());
+
+    }
+
     @Test
     public void testListTasksWithoutAuth() throws Exception {
         var request = MockMvcRequestBuilders.get(baseUrl);
@@ -178,6 +350,103 @@ class TaskControllerTest {
 
     }
 
+    @Test
+    public void testTaskCreateWithLabels() throws Exception {
+        cleanUp();
+
+        var labelIds = defaultLabels.stream()
+                .map(name -> labelRepository.findByName(name).orElseThrow().getId())
+                .collect(Collectors.toSet());
+        var taskCreateDTO = taskMapper.map(testTask);
+        taskCreateDTO.setTaskLabelIds(labelIds);
+
+        var request = MockMvcRequestBuilders.post(baseUrl).with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(taskCreateDTO));
+        mockMvc.perform(request).andExpect(status().isCreated());
+
+        var task = taskRepository.findByName(taskCreateDTO.getTitle()).orElse(null);
+        assertNotNull(task);
+        testTask = task;
+
+        var body = mockMvc.perform(MockMvcRequestBuilders.get(baseUrl + "/" + task.getId()).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThatJson(body).node("status").isEqualTo(taskCreateDTO.getStatus());
+        assertThatJson(body).node("taskLabelIds").isArray().containsExactlyInAnyOrderElementsOf(labelIds);
+
+    }
+
+    @Test
+    public void testTaskCreateWithIdempotencyKey() throws Exception {
+        cleanUp();
+
+        var taskCreateDTO = taskMapper.map(testTask);
+        var body = om.writeValueAsString(taskCreateDTO);
+        var key = UUID.randomUUID().toString();
+
+        var request = MockMvcRequestBuilders.post(baseUrl).with(jwt())
+                .header(IdempotencyKeys.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+        var first = mockMvc.perform(request)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        var retry = mockMvc.perform(request)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        var task = taskRepository.findByName(taskCreateDTO.getTitle()).orElse(null);
+
+        assertNotNull(task);
+        assertThatJson(first).node("id").isEqualTo(task.getId());
+        assertThatJson(retry).isEqualTo(first);
+
+        taskCreateDTO.setContent("another " + taskCreateDTO.getContent());
+        var differentRequest = MockMvcRequestBuilders.post(baseUrl).with(jwt())
+                .header(IdempotencyKeys.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(taskCreateDTO));
+        mockMvc.perform(differentRequest).andExpect(status().isBadRequest());
+
+        testTask = task;
+
+    }
+
+    @Test
+    public void testImportTasks() throws Exception {
+        var validTask = taskMapper.map(testTask);
+        validTask.setTitle("imported-" + testTask.getName());
+        var invalidTask = taskMapper.map(testTask);
+        invalidTask.setStatus("something-wrong");
+
+        var request = MockMvcRequestBuilders.post(baseUrl + "/bulk").with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(List.of(validTask, invalidTask)));
+        var body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        var task = taskRepository.findByName(validTask.getTitle()).orElse(null);
+
+        assertNotNull(task);
+        assertThatJson(body).isArray().hasSize(2);
+        assertThatJson(body).node("[0].id").isEqualTo(task.getId());
+        assertThatJson(body).node("[1].error").isString().contains("something-wrong");
+
+        taskRepository.deleteById(task.getId());
+
+    }
+
     @Test
     public void testCreateTaskWithoutIndexAndDescription() throws Exception {
         var testTask2 = Instancio.of(modelGenerator.getTaskModel())
@@ -336,4 +605,168 @@ class TaskControllerTest {
 
     }
 
+    @Test
+    public void testBulkUpdateTasks() throws Exception {
+        var label = labelRepository.findByName(defaultLabels.get(1)).orElseThrow();
+        var data = Map.of(
+                "ids", List.of(testTask.getId()),
+                "status", taskStatuses.get(1),
+                "addLabelIds", List.of(label.getId()));
+
+        var request = MockMvcRequestBuilders.patch(baseUrl + "/bulk").with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(data));
+        var body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThatJson(body).node("affected").isEqualTo(1);
+
+        var task = mockMvc.perform(MockMvcRequestBuilders.get(baseUrl + "/" + testTask.getId()).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThatJson(task).and(
+                v -> v.node("status").isEqualTo(taskStatuses.get(1)),
+                v -> v.node("assignee_id").isEqualTo(testTask.getAssignee().getId()),
+                v -> v.node("taskLabelIds").isArray().contains(label.getId())
+        );
+
+    }
+
+    @Test
+    public void testBulkUpdateTasksByFilter() throws Exception {
+        var data = new HashMap<String, Object>();
+        data.put("filter", Map.of("titleCont", testTask.getName(), "status", taskStatuses.get(0)));
+        data.put("assignee_id", null);
+
+        var request = MockMvcRequestBuilders.patch(baseUrl + "/bulk").with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(data));
+        mockMvc.perform(request)
+                .andExpect(status().isOk());
+
+        var task = taskRepository.findById(testTask.getId()).orElseThrow();
+
+        assertNull(task.getAssignee());
+
+    }
+
+    @Test
+    public void testBulkUpdateTasksWithEmptyFilter() throws Exception {
+        var data = Map.of("filter", Map.of(), "status", taskStatuses.get(1));
+
+        var request = MockMvcRequestBuilders.patch(baseUrl + "/bulk").with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(data));
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+    }
+
+    @Test
+    public void testBulkDeleteTasks() throws Exception {
+        var data = Map.of("ids", List.of(testTask.getId()));
+
+        var request = MockMvcRequestBuilders.delete(baseUrl + "/bulk").with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(data));
+        var body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThatJson(body).node("affected").isEqualTo(1);
+        assertThat(taskRepository.findById(testTask.getId())).isEmpty();
+
+    }
+
+    @Test
+    public void testMoveTask() throws Exception {
+        var status = taskStatusRepository.findBySlug(taskStatuses.get(3)).orElseThrow();
+        var neighbours = new ArrayList<Task>();
+        for (var index : List.of(10, 11)) {
+            var task = Instancio.of(modelGenerator.getTaskModel()).create();
+            task.setIndex(index);
+            task.setTaskStatus(status);
+            task.setAssignee(null);
+            task.setLabels(new HashSet<>());
+            neighbours.add(taskRepository.save(task));
+        }
+
+        try {
+            // no rank is left between 10 and 11, so the column is rebalanced first
+            var data = Map.of("status", status.getSlug(), "afterId", neighbours.get(0).getId());
+            var request = MockMvcRequestBuilders.post(baseUrl + "/" + testTask.getId() + "/move").with(jwt())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsString(data));
+            mockMvc.perform(request)
+                    .andExpect(status().isOk());
+
+            var moved = taskRepository.findById(testTask.getId()).orElseThrow();
+            var above = taskRepository.findById(neighbours.get(0).getId()).orElseThrow();
+            var below = taskRepository.findById(neighbours.get(1).getId()).orElseThrow();
+
+            assertThat(moved.getTaskStatus().getSlug()).isEqualTo(status.getSlug());
+            assertThat(moved.getIndex()).isGreaterThan(above.getIndex()).isLessThan(below.getIndex());
+        } finally {
+            taskRepository.deleteAll(neighbours);
+        }
+
+    }
+
+    @Test
+    public void testMoveTaskNextToItself() throws Exception {
+        var data = Map.of("status", taskStatuses.get(3), "beforeId", testTask.getId());
+        var request = MockMvcRequestBuilders.post(baseUrl + "/" + testTask.getId() + "/move").with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(data));
+
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+    }
+
+    @Test
+    public void testUpdateTaskWithIfMatch() throws Exception {
+        var url = baseUrl + "/" + testTask.getId();
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(url).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        var request = MockMvcRequestBuilders.put(url).with(jwt())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(Map.of("title", "first", "status", taskStatuses.get(0))));
+        var newETag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        assertThat(newETag).isNotEqualTo(eTag);
+        // the tag of the update response is that of the updated task
+        mockMvc.perform(MockMvcRequestBuilders.get(url).header(HttpHeaders.IF_NONE_MATCH, newETag).with(jwt()))
+                .andExpect(status().isNotModified());
+
+        // the second writer still has the tag read before the first update
+        var staleRequest = MockMvcRequestBuilders.put(url).with(jwt())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(Map.of("title", "second", "status", taskStatuses.get(0))));
+        mockMvc.perform(staleRequest)
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(taskRepository.findById(testTask.getId()).orElseThrow().getName()).isEqualTo("first");
+
+    }
+
 }
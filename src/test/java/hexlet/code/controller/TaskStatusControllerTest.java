@@ -11,15 +11,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.util.Map;
+
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -197,6 +201,40 @@ class TaskStatusControllerTest {
         assertThat(taskStatus.getSlug()).isEqualTo(newTaskStatusUpdate.getSlug());
 
     }
+    @Test
+    public void testUpdateTaskStatusWithIfMatch() throws Exception {
+        var newTaskStatus = Instancio.of(modelGenerator.getTaskStatusModel()).create();
+        taskStatusRepository.save(newTaskStatus);
+
+        var url = baseUrl + "/" + newTaskStatus.getId();
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(url).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        var request = MockMvcRequestBuilders.put(url).with(jwt())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(Map.of("name", "first update")));
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        var staleRequest = MockMvcRequestBuilders.put(url).with(jwt())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(Map.of("name", "second update")));
+        mockMvc.perform(staleRequest)
+                .andExpect(status().isPreconditionFailed());
+
+        var taskStatus = taskStatusRepository.findById(newTaskStatus.getId()).orElse(null);
+
+        assertNotNull(taskStatus);
+        assertThat(taskStatus.getName()).isEqualTo("first update");
+
+    }
+
     //delete
     @Test
     public void testDeleteTaskStatus() throws Exception {
@@ -1,7 +1,9 @@
 package hexlet.code.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.component.IdempotencyKeys;
 import hexlet.code.model.User;
+import hexlet.code.repository.IdempotentRequestRepository;
 import hexlet.code.repository.UserRepository;
 import hexlet.code.util.ModelGenerator;
 import net.datafaker.Faker;
@@ -12,18 +14,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -36,6 +42,9 @@ class UsersControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private IdempotentRequestRepository idempotentRequestRepository;
+
     @Autowired
     private Faker faker;
 
@@ -129,6 +138,50 @@ class UsersControllerTest {
 
     }
 
+    @Test
+    public void testCreateUserWithIdempotencyKey() throws Exception {
+        var key = UUID.randomUUID().toString();
+        var body = new HashMap<String, String>(Map.of(
+                "email", newUser1.getEmail(),
+                "password", "first-password"));
+
+        var first = mockMvc.perform(MockMvcRequestBuilders.post(baseUrl)
+                        .header(IdempotencyKeys.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        var user = userRepository.findByEmail(newUser1.getEmail()).orElse(null);
+        assertNotNull(user);
+        var passwordDigest = user.getPasswordDigest();
+
+        // the password is not part of the fingerprint, so the retry is replayed rather than rejected
+        body.put("password", "second-password");
+        var retry = mockMvc.perform(MockMvcRequestBuilders.post(baseUrl)
+                        .header(IdempotencyKeys.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThatJson(retry).isEqualTo(first);
+        assertThatJson(first).node("id").isEqualTo(user.getId());
+        assertThat(userRepository.findByEmail(newUser1.getEmail()).orElseThrow().getPasswordDigest())
+                .isEqualTo(passwordDigest);
+
+        var stored = idempotentRequestRepository.findByScopeAndKey("users", key).orElseThrow();
+        assertThat(stored.getResponse()).doesNotContain("first-password");
+
+        idempotentRequestRepository.delete(stored);
+        userRepository.deleteById(user.getId());
+
+    }
+
     @Test
     public void testCreateUserWithoutOptionalParams() throws Exception {
         newUser1.setFirstName(null);
@@ -186,6 +239,34 @@ class UsersControllerTest {
         assertThat(user.getPasswordDigest()).isEqualTo(newUser1.getPasswordDigest());
     }
 
+    @Test
+    public void testUpdateUserWithIfMatch() throws Exception {
+        var url = baseUrl + "/" + newUser2.getId();
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(url).with(token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        var request = MockMvcRequestBuilders.put(url).with(token)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(Map.of("firstName", "First")));
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        var staleRequest = MockMvcRequestBuilders.put(url).with(token)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsString(Map.of("firstName", "Second")));
+        mockMvc.perform(staleRequest)
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(userRepository.findById(newUser2.getId()).orElseThrow().getFirstName()).isEqualTo("First");
+
+    }
+
     @Test
     public void testUpdateUserWithoutAuth() throws Exception {
         var request = MockMvcRequestBuilders.put(baseUrl + "/" + newUser2.getId())
@@ -0,0 +1,84 @@
+package hexlet.code.mapper;
+
+import hexlet.code.dto.task.TaskCreateDTO;
+import hexlet.code.model.User;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.util.ModelGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskMapperTest {
+
+    @Autowired
+    private TaskMapper taskMapper;
+
+    @Autowired
+    private ModelGenerator modelGenerator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int usersCount = 20;
+
+    private List<User> testUsers = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < usersCount; i++) {
+            testUsers.add(userRepository.save(Instancio.of(modelGenerator.getUserModel()).create()));
+        }
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userRepository.deleteAll(testUsers);
+        testUsers.clear();
+    }
+
+    @Test
+    public void testMapBatchResolvesAssigneesWithOneQuery() {
+        var dtos = testUsers.stream()
+                .map(user -> {
+                    var dto = new TaskCreateDTO();
+                    dto.setTitle("batch");
+                    dto.setStatus("draft");
+                    dto.setAssigneeId(user.getId());
+                    dto.setTaskLabelIds(Set.of());
+                    return dto;
+                })
+                .toList();
+        // warms the status cache, so only the assignees are left to select
+        transactionTemplate.executeWithoutResult(status -> taskMapper.map(dtos.subList(0, 1)));
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var tasks = transactionTemplate.execute(status -> taskMapper.map(dtos));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(tasks).hasSize(usersCount);
+        assertThat(tasks).allSatisfy(task -> assertThat(task.getAssignee()).isNotNull());
+
+    }
+
+}
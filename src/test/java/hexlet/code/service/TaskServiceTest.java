@@ -0,0 +1,150 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.task.TaskFilterDTO;
+import hexlet.code.model.Task;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.search.TaskSearchIndex;
+import hexlet.code.util.ModelGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ModelGenerator modelGenerator;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String userEmail = "hexlet@example.com";
+
+    private String titlePrefix = "n-plus-one-";
+
+    private List<Task> testTasks = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        createTasks(5);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        taskRepository.deleteAll(testTasks);
+        testTasks.clear();
+    }
+
+    @Test
+    public void testListTasksStatementCountDoesNotDependOnPageSize() {
+        var filterDTO = new TaskFilterDTO();
+        filterDTO.setTitleCont(titlePrefix);
+
+        var smallPageStatements = countStatements(filterDTO);
+        assertThat(taskService.getAllTasks(filterDTO)).hasSize(5);
+
+        createTasks(15);
+        var largePageStatements = countStatements(filterDTO);
+        assertThat(taskService.getAllTasks(filterDTO)).hasSize(20);
+
+        assertThat(largePageStatements).isEqualTo(smallPageStatements);
+
+    }
+
+    @Test
+    public void testRolledBackTaskIsNotIndexed() {
+        var term = "rolledbackterm";
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var task = Instancio.of(modelGenerator.getTaskModel()).create();
+            task.setName(term);
+            task.setTaskStatus(taskStatusRepository.findBySlug("draft").orElseThrow());
+            task.setAssignee(null);
+            task.setLabels(new HashSet<>());
+            taskRepository.saveAndFlush(task);
+            status.setRollbackOnly();
+        });
+
+        assertThat(taskSearchIndex.search(term, 10)).isEmpty();
+
+    }
+
+    @Test
+    public void testSearchCountMatchesListedTasks() {
+        createTasks(1000);
+
+        var filterDTO = new TaskFilterDTO();
+        filterDTO.setTitleCont(titlePrefix);
+        filterDTO.setQ("plus one");
+
+        // the list and its count stop at the best 1000 matches, bulk updates and exports see all of them
+        assertThat(taskService.countTasks(filterDTO)).isEqualTo(1000);
+        assertThat(taskService.findTaskIds(filterDTO)).hasSize(testTasks.size());
+
+        filterDTO.setStart(900);
+        filterDTO.setEnd(1000);
+        assertThat(taskService.getAllTasks(filterDTO)).hasSize(100);
+
+    }
+
+    private long countStatements(TaskFilterDTO filterDTO) {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        taskService.getAllTasks(filterDTO);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createTasks(int count) {
+        var taskStatus = taskStatusRepository.findBySlug("draft").orElseThrow();
+        var assignee = userRepository.findByEmail(userEmail).orElseThrow();
+        var labels = labelRepository.findByName("bug").stream().collect(Collectors.toSet());
+
+        for (int i = 0; i < count; i++) {
+            var task = Instancio.of(modelGenerator.getTaskModel()).create();
+            task.setName(titlePrefix + task.getName());
+            task.setTaskStatus(taskStatus);
+            task.setAssignee(assignee);
+            task.setLabels(new HashSet<>(labels));
+            testTasks.add(taskRepository.save(task));
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package hexlet.code.service;
+
+import hexlet.code.model.Task;
+import hexlet.code.model.User;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.util.ModelGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ModelGenerator modelGenerator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int usersCount = 20;
+
+    private int tasksPerUser = 10;
+
+    private List<User> testUsers = new ArrayList<>();
+
+    private List<Task> testTasks = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        var taskStatus = taskStatusRepository.findBySlug("draft").orElseThrow();
+
+        for (int i = 0; i < usersCount; i++) {
+            var user = userRepository.save(Instancio.of(modelGenerator.getUserModel()).create());
+            testUsers.add(user);
+
+            for (int j = 0; j < tasksPerUser; j++) {
+                var task = Instancio.of(modelGenerator.getTaskModel()).create();
+                task.setTaskStatus(taskStatus);
+                task.setAssignee(user);
+                task.setLabels(new HashSet<>());
+                testTasks.add(taskRepository.save(task));
+            }
+        }
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        taskRepository.deleteAll(testTasks);
+        userRepository.deleteAll(testUsers);
+        testTasks.clear();
+        testUsers.clear();
+    }
+
+    @Test
+    public void testListUsersDoesNotLoadTasks() {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var users = userService.getAllUsers();
+
+        assertThat(users).hasSizeGreaterThanOrEqualTo(usersCount);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(users.size());
+
+    }
+
+}
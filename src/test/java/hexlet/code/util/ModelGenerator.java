@@ -29,6 +29,7 @@ public class ModelGenerator {
 	private void init() {
 		userModel = Instancio.of(User.class)
 							.ignore(Select.field(User::getId))
+							.ignore(Select.field(User::getVersion))
 							.supply(Select.field(User::getFirstName),
 									() -> faker.name().firstName())
 							.supply(Select.field(User::getLastName),
@@ -44,6 +45,7 @@ public class ModelGenerator {
 		// для этого реализован метод, который возвращает случайное число
 		taskStatusModel = Instancio.of(TaskStatus.class)
 							.ignore(Select.field(TaskStatus::getId))
+							.ignore(Select.field(TaskStatus::getVersion))
 							.supply(Select.field(TaskStatus::getName),
 									() -> faker.book().author() + generateRandom())
 							.supply(Select.field(TaskStatus::getSlug),
@@ -52,6 +54,7 @@ public class ModelGenerator {
 
 		taskModel = Instancio.of(Task.class)
 							.ignore(Select.field(Task::getId))
+							.ignore(Select.field(Task::getVersion))
 							.supply(Select.field(Task::getName),
 									() -> faker.lorem().word())
 							.supply(Select.field(Task::getDescription),
@@ -60,6 +63,7 @@ public class ModelGenerator {
 
 		labelModel = Instancio.of(Label.class)
 							.ignore(Select.field(Label::getId))
+							.ignore(Select.field(Label::getVersion))
 							.supply(Select.field(Label::getName),
 									() -> faker.lorem().characters(3, 100))
 							.ignore(Select.field(Label::getTasks))